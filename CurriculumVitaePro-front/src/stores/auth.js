@@ -35,7 +35,7 @@ export const useAuthStore = defineStore('auth', {
         this.logout()
         return
       }
-      const res = await api.get(`/persons/${id}`)
+      const res = await api.get(`/persons/${id}?fields=summary`)
       this.me = res.data
     },
 
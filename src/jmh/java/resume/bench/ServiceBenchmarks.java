@@ -0,0 +1,142 @@
+package resume.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import resume.Main;
+import resume.repository.PersonRepository;
+import resume.service.ActivityService;
+import resume.service.CountMode;
+import resume.service.PersonService;
+import resume.web.dto.activity.ActivityResponseDto;
+import resume.web.dto.person.PersonResponseDto;
+import resume.web.security.JwtService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Boots the whole application against an in-memory H2 seeded by DataInitializer,
+// then measures the service layer directly (no HTTP, no JSON).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServiceBenchmarks {
+
+    @Param({"10000", "100000"})
+    public int datasetSize;
+
+    ConfigurableApplicationContext context;
+    PersonService personService;
+    ActivityService activityService;
+    JwtService jwtService;
+    JwtService uncachedJwtService;
+
+    List<UUID> personIds;
+    String token;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        // passed as command-line args so they win over the test application.properties
+        context = new SpringApplicationBuilder(Main.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench" + datasetSize
+                                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "--logging.level.org.hibernate.tool.hbm2ddl=WARN",
+                        "--app.jwt.secret=bench_secret_key_that_is_long_enough_for_hs256_0123456789",
+                        "--app.jwt.expiration=3600000",
+                        "--app.seed.persons=" + datasetSize
+                );
+
+        personService = context.getBean(PersonService.class);
+        activityService = context.getBean(ActivityService.class);
+        jwtService = context.getBean(JwtService.class);
+
+        var env = context.getEnvironment();
+        uncachedJwtService = new JwtService(
+                env.getRequiredProperty("app.jwt.secret"),
+                env.getRequiredProperty("app.jwt.expiration", Long.class),
+                0
+        );
+
+        personIds = context.getBean(PersonRepository.class).findAllNames().stream()
+                .map(p -> p.getId())
+                .limit(10_000)
+                .toList();
+        token = jwtService.generateToken(personIds.get(0), "bench@mail.fr");
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+    }
+
+    UUID randomPerson() {
+        return personIds.get(ThreadLocalRandom.current().nextInt(personIds.size()));
+    }
+
+    @Benchmark
+    public Object searchPersons() {
+        return personService.searchPersonDtos("son", 0, 20, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public Object suggestNames() {
+        return personService.suggestNames("kar", 8);
+    }
+
+    @Benchmark
+    public Object listPersonsFirstPage() {
+        return personService.listPersonDtos(0, 20, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public Object listPersonsDeepPage() {
+        return personService.listPersonDtos(datasetSize / 40, 20, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public Object getPersonWithActivities() {
+        return personService.getPersonWithActivities(randomPerson());
+    }
+
+    @Benchmark
+    public Object listActivities() {
+        return activityService.listActivityDtos(randomPerson(), 0, 10, CountMode.EXACT, false);
+    }
+
+    @Benchmark
+    public Object searchByTitle() {
+        return activityService.searchActivityDtosByTitle("engineer", 0, 10, CountMode.EXACT, false);
+    }
+
+    // page content only, without the count; run with "-prof gc" for gc.alloc.rate.norm (bytes per page)
+    @Benchmark
+    public List<PersonResponseDto> listPersonsPageDtos() {
+        return personService.listPersonDtos(datasetSize / 40, 20, CountMode.NONE).getContent();
+    }
+
+    @Benchmark
+    public List<ActivityResponseDto> searchActivitiesPageDtos() {
+        return activityService.searchActivityDtosByTitle("engineer", 0, 20, CountMode.NONE, false).getContent();
+    }
+
+    @Benchmark
+    public UUID validateTokenCached() {
+        return jwtService.validateAndGetPersonId(token);
+    }
+
+    @Benchmark
+    public UUID validateTokenUncached() {
+        return uncachedJwtService.validateAndGetPersonId(token);
+    }
+}
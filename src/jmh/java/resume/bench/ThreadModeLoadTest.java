@@ -0,0 +1,165 @@
+package resume.bench;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import resume.Main;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load test: same mixed workload (90% paged listing, 10% login)
+// against the platform-thread and the virtual-thread mode, at growing client concurrency.
+//
+//   JAVA_HOME=<jdk21> mvn -Pbench,java21 test-compile exec:exec \
+//       -Dbench.main=resume.bench.ThreadModeLoadTest -Djmh.args="20000 10"
+//
+// args: dataset size (default 20000), seconds per step (default 10).
+// Results go to target/loadtest-result.json.
+public class ThreadModeLoadTest {
+
+    static final int[] CONCURRENCY = {8, 32, 128, 512};
+
+    record Step(String mode, int concurrency, long requests, long errors, double throughput, double p50Ms, double p99Ms) {}
+
+    public static void main(String[] args) throws Exception {
+        int datasetSize = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        // the clients' callback threads, shared by every step and shut down with the run
+        var clientExecutor = Executors.newFixedThreadPool(4);
+        var results = new ArrayList<Step>();
+        try {
+            results.addAll(run("platform", datasetSize, seconds, clientExecutor));
+
+            if (Runtime.version().feature() >= 21) {
+                results.addAll(run("virtual", datasetSize, seconds, clientExecutor));
+            } else {
+                System.out.println("Java " + Runtime.version().feature() + ": skipping virtual-thread mode (needs 21)");
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        System.out.printf("%n%-9s %6s %10s %8s %10s %9s %9s%n", "mode", "conc", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (var s : results) {
+            System.out.printf("%-9s %6d %10d %8d %10.0f %9.2f %9.2f%n",
+                    s.mode(), s.concurrency(), s.requests(), s.errors(), s.throughput(), s.p50Ms(), s.p99Ms());
+        }
+        writeJson(results, Path.of("target", "loadtest-result.json"));
+    }
+
+    static List<Step> run(String mode, int datasetSize, int seconds, Executor clientExecutor) throws Exception {
+        var argv = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--logging.level.org.hibernate.tool.hbm2ddl=WARN",
+                "--app.jwt.secret=bench_secret_key_that_is_long_enough_for_hs256_0123456789",
+                "--app.jwt.expiration=3600000",
+                "--app.seed.persons=" + datasetSize
+        ));
+        if (mode.equals("virtual")) {
+            argv.add("--spring.profiles.active=virtual");
+        }
+
+        try (var context = new SpringApplicationBuilder(Main.class).run(argv.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var base = "http://localhost:" + port;
+            var steps = new ArrayList<Step>();
+            for (int c : CONCURRENCY) {
+                steps.add(step(mode, base, c, seconds, datasetSize, clientExecutor));
+            }
+            return steps;
+        }
+    }
+
+    static Step step(String mode, String base, int concurrency, int seconds, int datasetSize,
+                     Executor clientExecutor) throws InterruptedException {
+        var client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int pages = Math.max(1, datasetSize / 20);
+
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        var done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            sendNext(client, base, pages, deadline, latencies, errors, done);
+        }
+        done.await();
+
+        var sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long n = sorted.length;
+        return new Step(
+                mode, concurrency, n, errors.get(),
+                n / (double) seconds,
+                n == 0 ? 0 : sorted[(int) (n * 0.50)] / 1e6,
+                n == 0 ? 0 : sorted[(int) Math.min(n - 1, n * 0.99)] / 1e6
+        );
+    }
+
+    // each "virtual user" chains its next request on completion of the previous one
+    static void sendNext(HttpClient client, String base, int pages, long deadline,
+                         Queue<Long> latencies, AtomicLong errors, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+
+        var rnd = ThreadLocalRandom.current();
+        HttpRequest req;
+        if (rnd.nextInt(10) == 0) {
+            req = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"yacine.kartout@gmail.com\",\"password\":\"yacine\"}"))
+                    .build();
+        } else {
+            req = HttpRequest.newBuilder(URI.create(base + "/api/persons?size=20&page=" + rnd.nextInt(pages)))
+                    .GET()
+                    .build();
+        }
+
+        long start = System.nanoTime();
+        client.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((res, err) -> {
+                    if (err != null || res.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    } else {
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    sendNext(client, base, pages, deadline, latencies, errors, done);
+                });
+    }
+
+    static void writeJson(List<Step> steps, Path out) throws IOException {
+        var sb = new StringBuilder("[\n");
+        for (int i = 0; i < steps.size(); i++) {
+            var s = steps.get(i);
+            sb.append(String.format(Locale.ROOT,
+                    "  {\"mode\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,"
+                            + "\"throughput\":%.1f,\"p50Ms\":%.3f,\"p99Ms\":%.3f}%s%n",
+                    s.mode(), s.concurrency(), s.requests(), s.errors(),
+                    s.throughput(), s.p50Ms(), s.p99Ms(), i < steps.size() - 1 ? "," : ""));
+        }
+        sb.append("]\n");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, sb);
+    }
+}
@@ -1,147 +1,231 @@
 package resume.config;
 
 import com.github.javafaker.Faker;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import resume.model.*;
-import resume.repository.ActivityRepository;
 import resume.repository.PersonRepository;
 import resume.web.security.PasswordHasher;
 
-import java.text.Normalizer;
+import java.sql.Date;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
-@RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
+    private static final String INSERT_PERSON = """
+            insert into "persons" ("id", "first_name", "last_name", "first_name_key", "last_name_key",
+                                   "email", "website", "birth_date", "password_hash")
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_ACTIVITY = """
+            insert into "activities" ("id", "year", "type", "title", "title_key", "description", "url", "person_id")
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
     private final PersonRepository personRepository;
-    private final ActivityRepository activityRepository;
     private final PasswordHasher passwordHasher;
-
-    private final Faker faker = new Faker();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    private final boolean enabled;
+    private final int personCount;
+    private final long seed;
+    private final int parallelism;
+    private final int batchSize;
+
+    private final AtomicLong personsInserted = new AtomicLong();
+    private final AtomicLong activitiesInserted = new AtomicLong();
+
+    public DataInitializer(PersonRepository personRepository,
+                           PasswordHasher passwordHasher,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.seed.enabled:true}") boolean enabled,
+                           @Value("${app.seed.persons:100000}") int personCount,
+                           @Value("${app.seed.seed:42}") long seed,
+                           @Value("${app.seed.parallelism:0}") int parallelism,
+                           @Value("${app.seed.batch-size:1000}") int batchSize) {
+        this.personRepository = personRepository;
+        this.passwordHasher = passwordHasher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.personCount = personCount;
+        this.seed = seed;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
 
     @Override
-    public void run(String... args) {
+    public void run(String... args) throws Exception {
+
+        if (!enabled) {
+            System.out.println("Seeding disabled (app.seed.enabled=false).");
+            return;
+        }
 
         if (personRepository.count() > 0) {
             System.out.println("Database already populated — skipping faker generation.");
             return;
         }
 
-        System.out.println("Starting massive dataset generation with Java Faker");
-
-        final String yacineHash = passwordHasher.hash("yacine");
-        final String ikrameHash = passwordHasher.hash("ikrame");
-        final String fakerHash  = passwordHasher.hash("password");
+        System.out.println("Seeding " + personCount + " CVs with Java Faker on " + parallelism
+                + " workers (seed=" + seed + ", batch=" + batchSize + ")");
 
         // ------------------ comptes dev ------------------
-        Person yacine = Person.builder()
+        var yacine = personRepository.save(Person.builder()
                 .firstName("Yacine")
                 .lastName("Kartout")
                 .email("yacine.kartout@gmail.com")
                 .birthDate(LocalDate.of(2000, 3, 12))
-                .passwordHash(yacineHash)
+                .passwordHash(passwordHasher.hash("yacine"))
                 .website("https://yacine.dev")
-                .build();
+                .build());
 
-        Person ikrame = Person.builder()
+        var ikrame = personRepository.save(Person.builder()
                 .firstName("Ikrame")
                 .lastName("Loukridi")
                 .email("ikrame.loukridi@gmail.com")
                 .birthDate(LocalDate.of(2002, 7, 8))
-                .passwordHash(ikrameHash)
+                .passwordHash(passwordHasher.hash("ikrame"))
                 .website("https://ikrame.dev")
-                .build();
-
-        personRepository.save(yacine);
-        personRepository.save(ikrame);
+                .build());
+
+        // the dev accounts get faker activities like every other seeded CV
+        var devRandom = new Random(seed - 1);
+        var devFaker = new Faker(devRandom);
+        var devActivities = new ArrayList<Object[]>();
+        for (var dev : List.of(yacine, ikrame)) {
+            addActivities(devFaker, devRandom, dev.getId(), devActivities);
+        }
+        tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_ACTIVITY, devActivities));
+        activitiesInserted.addAndGet(devActivities.size());
 
         System.out.println("Added dev accounts: yacine.kartout@gmail.com & ikrame.loukridi@gmail.com");
 
-        // ------------------ faker persons ------------------
-        final int PERSON_COUNT = 100_000;
-        List<Person> personsBatch = new ArrayList<>(5000);
+        // ------------------ faker persons + activities ------------------
+        final String fakerHash = passwordHasher.hash("password");
+        long start = System.nanoTime();
+
+        var workers = Executors.newFixedThreadPool(parallelism);
+        var reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> report(start), 2, 2, TimeUnit.SECONDS);
+
+        try {
+            var futures = new ArrayList<Future<?>>();
+            int perWorker = (personCount + parallelism - 1) / parallelism;
+
+            for (int w = 0; w < parallelism; w++) {
+                int from = w * perWorker + 1;
+                int to = Math.min(personCount, from + perWorker - 1);
+                if (from > to) {
+                    break;
+                }
+                long workerSeed = seed + w;
+                futures.add(workers.submit(() -> generate(from, to, workerSeed, fakerHash)));
+            }
+
+            for (var f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed", e.getCause());
+        } finally {
+            reporter.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        report(start);
+        System.out.println("DONE: Generated " + personsInserted.get() + " CVs + "
+                + activitiesInserted.get() + " activities !");
+    }
+
+    private void generate(int from, int to, long workerSeed, String passwordHash) {
+        var random = new Random(workerSeed);
+        var faker = new Faker(random);
 
-        for (int i = 1; i <= PERSON_COUNT; i++) {
+        var persons = new ArrayList<Object[]>(batchSize);
+        var activities = new ArrayList<Object[]>(batchSize * 3);
+
+        for (int i = from; i <= to; i++) {
 
             String first = faker.name().firstName();
             String last  = faker.name().lastName();
-
             String email = (clean(first) + "." + clean(last) + i + "@gmail.com").toLowerCase();
+            UUID personId = new UUID(random.nextLong(), random.nextLong());
 
-            Person p = Person.builder()
-                    .firstName(first)
-                    .lastName(last)
-                    .email(email)
-                    .birthDate(LocalDate.of(
+            persons.add(new Object[]{
+                    personId, first, last, SearchKeys.normalize(first), SearchKeys.normalize(last), email, null,
+                    Date.valueOf(LocalDate.of(
                             faker.number().numberBetween(1965, 2005),
                             faker.number().numberBetween(1, 12),
                             faker.number().numberBetween(1, 28)
-                    ))
-                    .passwordHash(fakerHash)
-                    .build();
+                    )),
+                    passwordHash
+            });
 
-            personsBatch.add(p);
+            addActivities(faker, random, personId, activities);
 
-            if (i % 5000 == 0) {
-                personRepository.saveAll(personsBatch);
-                personsBatch.clear();
-                System.out.println("Inserted persons: " + i);
+            if (persons.size() == batchSize) {
+                flush(persons, activities);
             }
         }
 
-        if (!personsBatch.isEmpty()) {
-            personRepository.saveAll(personsBatch);
+        if (!persons.isEmpty()) {
+            flush(persons, activities);
         }
+    }
 
-        System.out.println("Persons generation complete.");
-
-        // ------------------ faker activities ------------------
-        List<Activity> actBatch = new ArrayList<>(10_000);
-
-        var allPersons = personRepository.findAll();
-        int counter = 0;
-
-        for (Person p : allPersons) {
-
-            int numActs = faker.number().numberBetween(1, 5);
-
-            for (int j = 0; j < numActs; j++) {
-
-                Activity a = Activity.builder()
-                        .year(faker.number().numberBetween(2000, 2025))
-                        .type(faker.options().option(ActivityType.class))
-                        .title(faker.job().title())
-                        .description(faker.lorem().paragraph())
-                        .url(faker.internet().url())
-                        .person(p)
-                        .build();
-
-                actBatch.add(a);
-            }
-
-            counter++;
-
-            if (actBatch.size() >= 10_000) {
-                activityRepository.saveAll(actBatch);
-                actBatch.clear();
-                System.out.println("Inserted activities for persons: " + counter);
-            }
+    // 1 to 4 faker activities for one person, as rows for INSERT_ACTIVITY
+    private static void addActivities(Faker faker, Random random, UUID personId, List<Object[]> activities) {
+        int numActs = faker.number().numberBetween(1, 5);
+        for (int j = 0; j < numActs; j++) {
+            var id = new UUID(random.nextLong(), random.nextLong());
+            int year = faker.number().numberBetween(2000, 2025);
+            String type = faker.options().option(ActivityType.class).name();
+            String title = faker.job().title();
+            activities.add(new Object[]{
+                    id,
+                    year,
+                    type,
+                    title,
+                    SearchKeys.normalize(title),
+                    faker.lorem().paragraph(),
+                    faker.internet().url(),
+                    personId
+            });
         }
+    }
 
-        if (!actBatch.isEmpty()) {
-            activityRepository.saveAll(actBatch);
-        }
+    private void flush(List<Object[]> persons, List<Object[]> activities) {
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PERSON, persons);
+            jdbcTemplate.batchUpdate(INSERT_ACTIVITY, activities);
+        });
+        personsInserted.addAndGet(persons.size());
+        activitiesInserted.addAndGet(activities.size());
+        persons.clear();
+        activities.clear();
+    }
 
-        System.out.println("DONE: Generated ~100k CV + activities !");
+    private void report(long start) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+        long p = personsInserted.get();
+        long a = activitiesInserted.get();
+        System.out.printf("Seeding: %d/%d persons, %d activities, %.1fs, %.0f persons/s, %.0f rows/s%n",
+                p, personCount, a, seconds, p / seconds, (p + a) / seconds);
     }
 
     private String clean(String s) {
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD)
-                .replaceAll("[^\\p{ASCII}]", "");
-        return n.replaceAll("[^a-zA-Z0-9]", "");
+        return SearchKeys.normalize(s).replaceAll("[^a-z0-9]", "");
     }
 }
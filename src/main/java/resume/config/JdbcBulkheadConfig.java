@@ -0,0 +1,109 @@
+package resume.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// With virtual threads, request concurrency is no longer capped by Tomcat's pool.
+// A fair semaphore sized like the connection pool makes excess requests park here
+// (cheap for a virtual thread) instead of queueing inside the pool / JDBC driver.
+@Configuration
+@ConditionalOnProperty(name = "app.jdbc.bulkhead.enabled", havingValue = "true")
+public class JdbcBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcBulkhead(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int permits,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long timeoutMs) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(ds, permits, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static final class BulkheadDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        BulkheadDataSource(DataSource target, int permits, long timeoutMs) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("No JDBC permit within " + timeoutMs + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", e);
+            }
+        }
+
+        private Connection releasingOnClose(Connection target) {
+            var released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            try {
+                                target.close();
+                            } finally {
+                                permits.release();
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
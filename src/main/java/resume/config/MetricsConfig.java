@@ -0,0 +1,54 @@
+package resume.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import resume.service.cache.CredentialCache;
+import resume.service.cache.CvCache;
+import resume.web.security.BoundedPasswordHasher;
+import resume.web.security.JwtService;
+import resume.web.security.VerifiedTokenCache;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder tokenCacheMetrics(JwtService jwtService) {
+        var cache = jwtService.getTokenCache();
+        return registry -> {
+            FunctionCounter.builder("auth.token.cache.hits", cache, VerifiedTokenCache::hits)
+                    .register(registry);
+            FunctionCounter.builder("auth.token.cache.misses", cache, VerifiedTokenCache::misses)
+                    .register(registry);
+            FunctionCounter.builder("auth.token.cache.evictions", cache, VerifiedTokenCache::evictions)
+                    .register(registry);
+            Gauge.builder("auth.token.cache.size", cache, VerifiedTokenCache::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cvCacheMetrics(CvCache cvCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, cvCache.nativeCache(), "cv");
+    }
+
+    @Bean
+    public MeterBinder credentialCacheMetrics(CredentialCache credentialCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, credentialCache.nativeCache(), "credentials");
+    }
+
+    @Bean
+    public MeterBinder passwordHasherMetrics(BoundedPasswordHasher hasher) {
+        return registry -> {
+            Gauge.builder("auth.password.queue.depth", hasher, BoundedPasswordHasher::queueDepth)
+                    .register(registry);
+            Gauge.builder("auth.password.active", hasher, BoundedPasswordHasher::active)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.rejected", hasher, BoundedPasswordHasher::rejected)
+                    .register(registry);
+        };
+    }
+}
@@ -5,20 +5,23 @@ import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
 
 @Entity
 @Table(name = "activities", indexes = {
-        @Index(name = "idx_activity_person_year", columnList = "person_id, year DESC")
+        @Index(name = "idx_activity_person_year", columnList = "person_id, year DESC"),
+        @Index(name = "idx_activity_title_key", columnList = "title_key")
 })
+@EntityListeners(SearchKeys.Listener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Activity {
+public class Activity implements SearchKeys.Searchable {
 
 
     @Id
@@ -26,6 +29,13 @@ public class Activity {
     private UUID id;
 
 
+    // optimistic lock; also the ETag of PUT /api/activities/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+
     @Min(1900)
     @Max(3000)
     @Column(nullable = false)
@@ -43,6 +53,11 @@ public class Activity {
     private String title;
 
 
+    // SearchKeys.normalize(title), maintained by the entity listener
+    @Column(nullable = false, length = 200)
+    private String titleKey;
+
+
     @Lob
     private String description;
 
@@ -54,4 +69,10 @@ public class Activity {
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "person_id", nullable = false)
     private Person person;
+
+
+    @Override
+    public void refreshSearchKeys() {
+        titleKey = SearchKeys.normalize(title);
+    }
 }
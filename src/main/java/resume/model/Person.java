@@ -7,6 +7,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.time.LocalDate;
@@ -15,14 +16,18 @@ import java.util.*;
 
 @Entity
 @Table(name = "persons", indexes = {
-        @Index(name = "idx_person_email", columnList = "email", unique = true)
+        @Index(name = "idx_person_email", columnList = "email", unique = true),
+        @Index(name = "idx_person_lastname_id", columnList = "last_name, id"),
+        @Index(name = "idx_person_first_name_key", columnList = "first_name_key"),
+        @Index(name = "idx_person_last_name_key", columnList = "last_name_key, id")
 })
+@EntityListeners(SearchKeys.Listener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Person {
+public class Person implements SearchKeys.Searchable {
 
 
     @Id
@@ -30,6 +35,13 @@ public class Person {
     private UUID id;
 
 
+    // optimistic lock; also the ETag of PUT /api/persons/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+
     @NotBlank
     @Size(max = 100)
     private String firstName;
@@ -40,6 +52,15 @@ public class Person {
     private String lastName;
 
 
+    // SearchKeys.normalize(firstName / lastName), maintained by the entity listener
+    @Column(nullable = false, length = 100)
+    private String firstNameKey;
+
+
+    @Column(nullable = false, length = 100)
+    private String lastNameKey;
+
+
     @NotBlank
     @Email
     @Size(max = 255)
@@ -61,11 +82,25 @@ public class Person {
     private String passwordHash;
 
 
+    // written only by PersonViewCounter's batched flushes, never by entity updates
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
+
     @Builder.Default
     @OneToMany(mappedBy = "person", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("year desc, id")
     private List<Activity> activities = new ArrayList<>();
 
 
+    @Override
+    public void refreshSearchKeys() {
+        firstNameKey = SearchKeys.normalize(firstName);
+        lastNameKey = SearchKeys.normalize(lastName);
+    }
+
+
     public void addActivity(Activity a) {
         a.setPerson(this);
         activities.add(a);
@@ -0,0 +1,40 @@
+package resume.model;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// normalised copies of searchable text: accents stripped (NFD), lower case, single spaces.
+// Also the entity listener that keeps the persisted key columns in sync.
+public final class SearchKeys {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    public interface Searchable {
+        void refreshSearchKeys();
+    }
+
+    public static String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static class Listener {
+
+        @PrePersist
+        @PreUpdate
+        void refresh(Searchable entity) {
+            entity.refreshSearchKeys();
+        }
+    }
+
+    private SearchKeys() {
+    }
+}
@@ -0,0 +1,11 @@
+package resume.repository;
+
+import resume.model.Activity;
+
+import java.util.List;
+
+public interface ActivityBatchRepository {
+
+    // persist + flush + clear: one JDBC batch per chunk, nothing left managed afterwards
+    void insertBatch(List<Activity> chunk);
+}
@@ -0,0 +1,22 @@
+package resume.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import resume.model.Activity;
+
+import java.util.List;
+
+public class ActivityBatchRepositoryImpl implements ActivityBatchRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void insertBatch(List<Activity> chunk) {
+        for (var a : chunk) {
+            em.persist(a);
+        }
+        em.flush();
+        em.clear();
+    }
+}
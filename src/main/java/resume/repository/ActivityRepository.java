@@ -1,20 +1,224 @@
 package resume.repository;
 
 import resume.model.*;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import resume.repository.projection.ActivityFacetView;
+import resume.repository.projection.ActivityIndexView;
+import resume.repository.projection.ActivityStatsView;
+import resume.repository.projection.ActivityTextView;
+import resume.repository.projection.ActivityTitleView;
+import resume.repository.projection.RecentActivityView;
+import resume.web.dto.activity.ActivityDescriptionDto;
+import resume.web.dto.activity.ActivityResponseDto;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
 
 import java.util.*;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-public interface ActivityRepository extends JpaRepository<Activity, UUID> {
+
+public interface ActivityRepository extends JpaRepository<Activity, UUID>, ActivityBatchRepository {
 
     Page<Activity> findByPersonId(UUID personId, Pageable pageable);
 
+    long countByPersonId(UUID personId);
+
+    // capped counts for approxTotal (see CountEstimator): the scan stops after :cap matching rows
+    @Query(value = """
+            select count(*) from (
+                select 1 from "activities" a where a."person_id" = :personId limit :cap) x
+        """, nativeQuery = true)
+    long countByPersonIdUpTo(@Param("personId") UUID personId, @Param("cap") int cap);
+
+    @Query(value = """
+            select count(*) from (
+                select 1 from "activities" a where lower(a."title") like :pattern escape '\\' limit :cap) x
+        """, nativeQuery = true)
+    long countByTitlePatternUpTo(@Param("pattern") String pattern, @Param("cap") int cap);
+
+    @Query(value = """
+            select count(*) from (
+                select 1 from "activities" a where a."title_key" like :prefix escape '\\' limit :cap) x
+        """, nativeQuery = true)
+    long countByTitleKeyPrefixUpTo(@Param("prefix") String prefix, @Param("cap") int cap);
+
+    // DTO rows straight from the result set: no entity, no Person proxy; versions for If-Match
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.description, a.url, a.version)
+            from Activity a
+            where a.person.id = :personId
+        """)
+    Slice<ActivityResponseDto> findActivityDtosByPersonId(@Param("personId") UUID personId, Pageable pageable);
+
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.description, a.url)
+            from Activity a
+            where lower(a.title) like :pattern escape '\\'
+        """)
+    Slice<ActivityResponseDto> searchActivityDtosByTitle(@Param("pattern") String pattern, Pageable pageable);
+
+    // prefix mode on the normalised title: range scan of idx_activity_title_key
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.description, a.url)
+            from Activity a
+            where a.titleKey like :prefix escape '\\'
+        """)
+    Slice<ActivityResponseDto> searchActivityDtosByTitlePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.url)
+            from Activity a
+            where a.titleKey like :prefix escape '\\'
+        """)
+    Slice<ActivityResponseDto> searchActivitySummariesByTitlePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("select count(a) from Activity a where a.titleKey like :prefix escape '\\'")
+    long countByTitleKeyPrefix(@Param("prefix") String prefix);
+
+    // summary rows: the @Lob description column is not selected
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.url, a.version)
+            from Activity a
+            where a.person.id = :personId
+        """)
+    Slice<ActivityResponseDto> findActivitySummariesByPersonId(@Param("personId") UUID personId, Pageable pageable);
+
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.url)
+            from Activity a
+            where lower(a.title) like :pattern escape '\\'
+        """)
+    Slice<ActivityResponseDto> searchActivitySummariesByTitle(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("""
+            select new resume.web.dto.activity.ActivityResponseDto(
+                a.id, a.year, a.type, a.title, a.url, a.version)
+            from Activity a
+            where a.person.id = :personId
+            order by a.year desc, a.id asc
+        """)
+    List<ActivityResponseDto> findAllActivitySummariesByPersonId(@Param("personId") UUID personId);
+
+    @Query("select new resume.web.dto.activity.ActivityDescriptionDto(a.id, a.description) from Activity a where a.id = :id")
+    Optional<ActivityDescriptionDto> findDescriptionById(@Param("id") UUID id);
+
+    // edit in one statement, without reading the row first: ownership and version are part of the
+    // predicate, a null expectedVersion skips the version check. 0 = missing, not owned, or stale
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Activity a set
+                a.year = :year,
+                a.type = :type,
+                a.title = :title,
+                a.titleKey = :titleKey,
+                a.description = :description,
+                a.url = :url,
+                a.version = a.version + 1
+            where a.id = :id
+              and a.person.id = :personId
+              and (:expectedVersion is null or a.version = :expectedVersion)
+        """)
+    int updateIfVersion(@Param("id") UUID id,
+                        @Param("personId") UUID personId,
+                        @Param("expectedVersion") Long expectedVersion,
+                        @Param("year") int year,
+                        @Param("type") ActivityType type,
+                        @Param("title") String title,
+                        @Param("titleKey") String titleKey,
+                        @Param("description") String description,
+                        @Param("url") String url);
+
+    // SELECT ... FOR UPDATE: the row stays locked until the transaction ends, so an update that
+    // follows in the same transaction writes exactly this version + 1
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.version from Activity a where a.id = :id")
+    Optional<Long> lockVersionById(@Param("id") UUID id);
+
+    @Query("""
+            select a from Activity a
+            where a.person.id = :personId
+            order by a.year desc, a.id asc
+        """)
+    List<Activity> findFirstByPersonIdByYear(@Param("personId") UUID personId, Limit limit);
+
+    // "a.year <= :year" bounds the range scan of idx_activity_person_year inside the person's entries
+    @Query("""
+            select a from Activity a
+            where a.person.id = :personId
+              and a.year <= :year
+              and (a.year < :year or a.id > :id)
+            order by a.year desc, a.id asc
+        """)
+    List<Activity> findAfterByPersonIdByYear(
+            @Param("personId") UUID personId, @Param("year") int year, @Param("id") UUID id, Limit limit
+    );
+
     Page<Activity> findByPersonEmail(String email, Pageable pageable);
 
     List<Activity> findTop10ByPersonIdOrderByYearDesc(UUID personId);
 
+    List<Activity> findByPersonIdInOrderByYearDesc(Collection<UUID> personIds);
+
+    // top-K per person in one statement; each partition is read from idx_activity_person_year.
+    // Derived-table aliases are not quoted by Hibernate, hence the prefixed names ("year" is reserved).
+    @Query("""
+            select t.pid as personId, t.aid as id, t.ayear as year, t.atype as type,
+                   t.atitle as title, t.aurl as url
+            from (
+                select a.person.id as pid, a.id as aid, a.year as ayear, a.type as atype,
+                       a.title as atitle, a.url as aurl,
+                       row_number() over (partition by a.person.id order by a.year desc, a.id) as rn
+                from Activity a
+                where a.person.id in :personIds
+            ) t
+            where t.rn <= :limit
+            order by t.pid, t.ayear desc, t.aid
+        """)
+    List<RecentActivityView> findRecentByPersonIds(
+            @Param("personIds") Collection<UUID> personIds, @Param("limit") int limit
+    );
+
+    // one row per (person, type) for a whole page of persons
+    @Query("""
+            select a.person.id as personId, a.type as type, count(a) as total, max(a.year) as latestYear
+            from Activity a
+            where a.person.id in :personIds
+            group by a.person.id, a.type
+        """)
+    List<ActivityStatsView> findStatsByPersonIds(@Param("personIds") Collection<UUID> personIds);
+
     Page<Activity> findByTitleContainingIgnoreCase(String q, Pageable pageable);
-}
\ No newline at end of file
+
+    long countByTitleContainingIgnoreCase(String q);
+
+    @Query("select a.id as id, a.person.id as personId, a.title as title from Activity a")
+    List<ActivityTitleView> findAllTitles();
+
+    @Query("select a.id as id, a.person.id as personId, a.type as type, a.year as year, a.title as title from Activity a")
+    List<ActivityFacetView> findAllFacets();
+
+    @Query("""
+            select a.id as id, a.person.id as personId, a.type as type, a.year as year,
+                   a.title as title, a.description as description
+            from Activity a where a.id in :ids""")
+    List<ActivityIndexView> findIndexViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a.id as id, a.person.id as personId, a.title as title, a.description as description from Activity a")
+    Stream<ActivityTextView> streamAllText();
+}
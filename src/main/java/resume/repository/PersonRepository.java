@@ -1,20 +1,62 @@
 package resume.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import resume.model.Person;
+import resume.repository.projection.CredentialView;
+import resume.repository.projection.PersonNameView;
+import resume.repository.projection.ViewCountView;
+import resume.web.dto.person.PersonResponseDto;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 
 public interface PersonRepository extends JpaRepository<Person, UUID> {
 
     Optional<Person> findByEmail(String email);
 
+    Optional<CredentialView> findCredentialsByEmail(String email);
+
     boolean existsByEmail(String email);
 
+    @Transactional
+    @Modifying
+    @Query("update Person p set p.passwordHash = :hash where p.id = :id")
+    int updatePasswordHash(@Param("id") UUID id, @Param("hash") String hash);
+
+    // edit in one statement, without reading the row first: null parameters keep the current value,
+    // a null expectedVersion skips the version check. 0 = no such person, or changed since expectedVersion
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Person p set
+                p.firstName = coalesce(:firstName, p.firstName),
+                p.firstNameKey = coalesce(:firstNameKey, p.firstNameKey),
+                p.lastName = coalesce(:lastName, p.lastName),
+                p.lastNameKey = coalesce(:lastNameKey, p.lastNameKey),
+                p.website = coalesce(:website, p.website),
+                p.birthDate = coalesce(:birthDate, p.birthDate),
+                p.version = p.version + 1
+            where p.id = :id
+              and (:expectedVersion is null or p.version = :expectedVersion)
+        """)
+    int updateIfVersion(@Param("id") UUID id,
+                        @Param("expectedVersion") Long expectedVersion,
+                        @Param("firstName") String firstName,
+                        @Param("firstNameKey") String firstNameKey,
+                        @Param("lastName") String lastName,
+                        @Param("lastNameKey") String lastNameKey,
+                        @Param("website") String website,
+                        @Param("birthDate") LocalDate birthDate);
+
     @EntityGraph(attributePaths = {"activities"})
     Optional<Person> findWithActivitiesById(UUID id);
 
@@ -42,6 +84,115 @@ public interface PersonRepository extends JpaRepository<Person, UUID> {
     )
     Page<Person> searchByNameOrActivityTitle(@Param("q") String q, Pageable pageable);
 
+    @Query("""
+            select count(distinct p)
+            from Person p
+            left join p.activities a
+            where lower(p.firstName) like lower(concat('%', :q, '%'))
+               or lower(p.lastName) like lower(concat('%', :q, '%'))
+               or lower(a.title) like lower(concat('%', :q, '%'))
+        """)
+    long countByNameOrActivityTitle(@Param("q") String q);
+
+
+    // DTO rows straight from the result set: no entity, no snapshot, no lazy collection
+    @Query("""
+            select new resume.web.dto.person.PersonResponseDto(
+                p.id, p.firstName, p.lastName, p.email, p.website, p.birthDate)
+            from Person p
+        """)
+    Slice<PersonResponseDto> findPersonDtos(Pageable pageable);
+
+    @Query("""
+            select new resume.web.dto.person.PersonResponseDto(
+                p.id, p.firstName, p.lastName, p.email, p.website, p.birthDate, p.version)
+            from Person p
+            where p.id in :ids
+        """)
+    List<PersonResponseDto> findPersonDtosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select distinct new resume.web.dto.person.PersonResponseDto(
+                p.id, p.firstName, p.lastName, p.email, p.website, p.birthDate)
+            from Person p
+            left join p.activities a
+            where lower(p.firstName) like lower(concat('%', :q, '%'))
+               or lower(p.lastName) like lower(concat('%', :q, '%'))
+               or lower(a.title) like lower(concat('%', :q, '%'))
+        """)
+    Slice<PersonResponseDto> searchPersonDtos(@Param("q") String q, Pageable pageable);
+
+    // prefix mode on the normalised names: range scans of idx_person_last_name_key / idx_person_first_name_key;
+    // written as a union because H2 falls back to a table scan for an "or" across two columns
+    @Query("""
+            select new resume.web.dto.person.PersonResponseDto(
+                p.id, p.firstName, p.lastName, p.email, p.website, p.birthDate)
+            from Person p
+            where p.id in (
+                select p1.id from Person p1 where p1.lastNameKey like :prefix escape '\\'
+                union
+                select p2.id from Person p2 where p2.firstNameKey like :prefix escape '\\')
+        """)
+    Slice<PersonResponseDto> searchPersonDtosByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("""
+            select count(p) from Person p
+            where p.id in (
+                select p1.id from Person p1 where p1.lastNameKey like :prefix escape '\\'
+                union
+                select p2.id from Person p2 where p2.firstNameKey like :prefix escape '\\')
+        """)
+    long countByNameKeyPrefix(@Param("prefix") String prefix);
+
+    // capped counts for approxTotal (see CountEstimator): the scan stops after :cap matching rows
+    @Query(value = """
+            select count(*) from (
+                select p."id" from "persons" p where p."last_name_key" like :prefix escape '\\'
+                union
+                select p."id" from "persons" p where p."first_name_key" like :prefix escape '\\'
+                limit :cap) x
+        """, nativeQuery = true)
+    long countByNameKeyPrefixUpTo(@Param("prefix") String prefix, @Param("cap") int cap);
+
+    @Query(value = """
+            select count(*) from (
+                select distinct p."id"
+                from "persons" p
+                left join "activities" a on a."person_id" = p."id"
+                where lower(p."first_name") like lower(concat('%', :q, '%'))
+                   or lower(p."last_name") like lower(concat('%', :q, '%'))
+                   or lower(a."title") like lower(concat('%', :q, '%'))
+                limit :cap) x
+        """, nativeQuery = true)
+    long countByNameOrActivityTitleUpTo(@Param("q") String q, @Param("cap") int cap);
 
     Page<Person> findAll(Pageable pageable);
+
+    @Query("""
+            select p from Person p
+            order by p.lastName asc, p.id asc
+        """)
+    List<Person> findFirstByLastName(Limit limit);
+
+    // the leading ">=" bounds a range scan of idx_person_lastname_id; a bare "or" is a table scan on H2
+    @Query("""
+            select p from Person p
+            where p.lastName >= :lastName
+              and (p.lastName > :lastName or p.id > :id)
+            order by p.lastName asc, p.id asc
+        """)
+    List<Person> findAfterByLastName(@Param("lastName") String lastName, @Param("id") UUID id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Person p order by p.id")
+    Stream<Person> streamAll();
+
+    @Query("select p.id as id, p.firstName as firstName, p.lastName as lastName from Person p")
+    List<PersonNameView> findAllNames();
+
+    @Query("select p.id as id, p.viewCount as viewCount from Person p where p.viewCount > 0")
+    List<ViewCountView> findViewCounts();
 }
\ No newline at end of file
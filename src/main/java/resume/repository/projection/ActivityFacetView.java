@@ -0,0 +1,18 @@
+package resume.repository.projection;
+
+import resume.model.ActivityType;
+
+import java.util.UUID;
+
+public interface ActivityFacetView {
+
+    UUID getId();
+
+    UUID getPersonId();
+
+    ActivityType getType();
+
+    int getYear();
+
+    String getTitle();
+}
@@ -0,0 +1,5 @@
+package resume.repository.projection;
+
+// everything the in-memory and full-text indexes keep about one activity
+public interface ActivityIndexView extends ActivityFacetView, ActivityTextView {
+}
@@ -0,0 +1,16 @@
+package resume.repository.projection;
+
+import resume.model.ActivityType;
+
+import java.util.UUID;
+
+public interface ActivityStatsView {
+
+    UUID getPersonId();
+
+    ActivityType getType();
+
+    long getTotal();
+
+    int getLatestYear();
+}
@@ -0,0 +1,14 @@
+package resume.repository.projection;
+
+import java.util.UUID;
+
+public interface ActivityTextView {
+
+    UUID getId();
+
+    UUID getPersonId();
+
+    String getTitle();
+
+    String getDescription();
+}
@@ -0,0 +1,12 @@
+package resume.repository.projection;
+
+import java.util.UUID;
+
+public interface ActivityTitleView {
+
+    UUID getId();
+
+    UUID getPersonId();
+
+    String getTitle();
+}
@@ -0,0 +1,12 @@
+package resume.repository.projection;
+
+import java.util.UUID;
+
+public interface CredentialView {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getPasswordHash();
+}
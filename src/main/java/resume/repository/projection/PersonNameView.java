@@ -0,0 +1,12 @@
+package resume.repository.projection;
+
+import java.util.UUID;
+
+public interface PersonNameView {
+
+    UUID getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
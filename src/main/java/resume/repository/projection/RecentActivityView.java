@@ -0,0 +1,20 @@
+package resume.repository.projection;
+
+import resume.model.ActivityType;
+
+import java.util.UUID;
+
+public interface RecentActivityView {
+
+    UUID getPersonId();
+
+    UUID getId();
+
+    int getYear();
+
+    ActivityType getType();
+
+    String getTitle();
+
+    String getUrl();
+}
@@ -0,0 +1,10 @@
+package resume.repository.projection;
+
+import java.util.UUID;
+
+public interface ViewCountView {
+
+    UUID getId();
+
+    long getViewCount();
+}
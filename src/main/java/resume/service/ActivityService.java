@@ -1,16 +1,36 @@
 package resume.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import resume.model.Activity;
+import resume.model.ActivityType;
+import resume.model.SearchKeys;
 import resume.repository.ActivityRepository;
 import resume.repository.PersonRepository;
+import resume.service.cache.CvCache;
+import resume.service.search.ActivityFacetIndex;
+import resume.service.search.ActivityTextIndex;
+import resume.service.search.FacetPage;
+import resume.service.search.PersonSearchIndex;
 import resume.web.dto.activity.ActivityCreateRequestDto;
+import resume.web.dto.activity.ActivityDescriptionDto;
+import resume.web.dto.activity.ActivityResponseDto;
 import resume.service.exceptions.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +38,14 @@ public class ActivityService {
 
     private final ActivityRepository activityRepository;
     private final PersonRepository personRepository;
+    private final PersonSearchIndex searchIndex;
+    private final ActivityFacetIndex facetIndex;
+    private final ActivityTextIndex textIndex;
+    private final CountEstimator countEstimator;
+    private final CvCache cvCache;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
 
     @Transactional
     public Activity addActivity(UUID personId, UUID authPersonId, ActivityCreateRequestDto req) {
@@ -37,7 +65,71 @@ public class ActivityService {
                 .person(person)
                 .build();
 
-        return activityRepository.save(a);
+        var saved = activityRepository.save(a);
+        searchIndex.indexActivity(personId, saved.getId(), saved.getTitle());
+        facetIndex.indexActivity(personId, saved.getId(), saved.getType(), saved.getYear(), saved.getTitle());
+        textIndex.indexActivity(saved);
+        cvCache.invalidate(personId);
+        return saved;
+    }
+
+    @Transactional
+    public int importActivities(UUID personId, UUID authPersonId, Iterator<ActivityCreateRequestDto> rows) {
+        if (!personId.equals(authPersonId)) {
+            throw new ForbiddenException("You can modify only your CV");
+        }
+
+        if (!personRepository.existsById(personId)) {
+            throw new NotFoundException("Person not found");
+        }
+
+        var person = personRepository.getReferenceById(personId);
+        int chunkSize = Math.max(1, batchSize);
+        var chunk = new ArrayList<Activity>(chunkSize);
+        var importedIds = new ArrayList<UUID>();
+
+        while (rows.hasNext()) {
+            var req = rows.next();
+            chunk.add(Activity.builder()
+                    .year(req.year())
+                    .type(req.type())
+                    .title(req.title())
+                    .description(req.description())
+                    .url(req.url())
+                    .person(person)
+                    .build());
+
+            if (chunk.size() == chunkSize) {
+                flushChunk(chunk, importedIds);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flushChunk(chunk, importedIds);
+        }
+        // only the new ids wait for the commit (not index entries or Lucene documents); the rows
+        // are then read back and indexed a chunk at a time
+        AfterCommit.run(() -> indexImported(importedIds, chunkSize));
+        cvCache.invalidate(personId);
+        return importedIds.size();
+    }
+
+    private void flushChunk(List<Activity> chunk, List<UUID> importedIds) {
+        activityRepository.insertBatch(chunk);
+        for (var a : chunk) {
+            importedIds.add(a.getId());
+        }
+        chunk.clear();
+    }
+
+    private void indexImported(List<UUID> ids, int chunkSize) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            var rows = activityRepository.findIndexViewsByIdIn(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            for (var a : rows) {
+                searchIndex.indexActivity(a.getPersonId(), a.getId(), a.getTitle());
+                facetIndex.indexActivity(a.getPersonId(), a.getId(), a.getType(), a.getYear(), a.getTitle());
+            }
+            textIndex.indexTexts(rows);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -48,22 +140,59 @@ public class ActivityService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public List<Activity> listActivitiesAfter(UUID personId, Integer year, UUID id, int size) {
+        if (year == null || id == null) {
+            return activityRepository.findFirstByPersonIdByYear(personId, Limit.of(size));
+        }
+        return activityRepository.findAfterByPersonIdByYear(personId, year, id, Limit.of(size));
+    }
+
+    @Transactional(readOnly = true)
+    public long countActivities(UUID personId) {
+        return activityRepository.countByPersonId(personId);
+    }
+
+    // one conditional UPDATE (owner and version in the predicate) instead of read-modify-write;
+    // expectedVersion comes from If-Match (null = unconditional). The row is only read when nothing matched.
     @Transactional
-    public Activity updateActivity(UUID activityId, UUID authPersonId, ActivityCreateRequestDto req) {
-        var a = activityRepository.findById(activityId)
-                .orElseThrow(() -> new NotFoundException("Activity not found"));
+    public Activity updateActivity(UUID activityId, UUID authPersonId, ActivityCreateRequestDto req, Long expectedVersion) {
+        // without If-Match, lock the row and update whatever version it holds: no other writer can
+        // slip in between, so the update matches and the version returned is the one written
+        long current = expectedVersion != null
+                ? expectedVersion
+                : activityRepository.lockVersionById(activityId).orElseThrow(() -> new NotFoundException("Activity not found"));
 
-        if (!a.getPerson().getId().equals(authPersonId)) {
-            throw new ForbiddenException("You can modify only your CV");
+        int updated = activityRepository.updateIfVersion(activityId, authPersonId, current,
+                req.year(), req.type(), req.title(), SearchKeys.normalize(req.title()), req.description(), req.url());
+
+        if (updated == 0) {
+            var a = activityRepository.findById(activityId)
+                    .orElseThrow(() -> new NotFoundException("Activity not found"));
+            if (!a.getPerson().getId().equals(authPersonId)) {
+                throw new ForbiddenException("You can modify only your CV");
+            }
+            throw new PreconditionFailedException("Activity was modified since version " + current);
         }
 
-        a.setYear(req.year());
-        a.setType(req.type());
-        a.setTitle(req.title());
-        a.setDescription(req.description());
-        a.setUrl(req.url());
+        long version = current + 1;
 
-        return activityRepository.save(a);
+        // the row as written, built from the request: the owner is only a reference
+        var saved = Activity.builder()
+                .id(activityId)
+                .version(version)
+                .person(personRepository.getReferenceById(authPersonId))
+                .year(req.year())
+                .type(req.type())
+                .title(req.title())
+                .description(req.description())
+                .url(req.url())
+                .build();
+        searchIndex.indexActivity(authPersonId, saved.getId(), saved.getTitle());
+        facetIndex.indexActivity(authPersonId, saved.getId(), saved.getType(), saved.getYear(), saved.getTitle());
+        textIndex.indexActivity(saved);
+        cvCache.invalidate(authPersonId);
+        return saved;
     }
 
     @Transactional
@@ -76,6 +205,10 @@ public class ActivityService {
         }
 
         activityRepository.delete(a);
+        searchIndex.removeActivity(authPersonId, activityId);
+        facetIndex.removeActivity(activityId);
+        textIndex.removeActivity(activityId);
+        cvCache.invalidate(authPersonId);
     }
 
     @Transactional(readOnly = true)
@@ -85,4 +218,103 @@ public class ActivityService {
                 PageRequest.of(page, size, Sort.by(Sort.Order.desc("year")))
         );
     }
+
+    @Transactional(readOnly = true)
+    public FacetPage<Activity> facetSearch(String q, Set<ActivityType> types, Integer fromYear, Integer toYear,
+                                           int yearBucket, int page, int size) {
+        if (!facetIndex.isReady()) {
+            throw new ServiceUnavailableException("Facet index is still building", 1);
+        }
+
+        var hits = facetIndex.search(
+                new ActivityFacetIndex.Query(q, types, fromYear, toYear, yearBucket), page, size);
+
+        var byId = activityRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Activity::getId, Function.identity()));
+        var content = hits.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        return new FacetPage<>(
+                new PageImpl<>(content, PageRequest.of(page, size), hits.total()),
+                hits.types(),
+                hits.years()
+        );
+    }
+
+    // BM25-ranked, best match first
+    @Transactional(readOnly = true)
+    public Page<Activity> fullTextSearch(String q, int page, int size) {
+        if (!textIndex.isReady()) {
+            throw new ServiceUnavailableException("Full-text index is still building", 1);
+        }
+
+        var hits = textIndex.search(q, page, size);
+        var ids = hits.hits().stream().map(ActivityTextIndex.Hit::id).toList();
+
+        var byId = activityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Activity::getId, Function.identity()));
+        var content = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        return new PageImpl<>(content, PageRequest.of(page, size), hits.total());
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ActivityResponseDto> listActivityDtos(UUID personId, int page, int size, CountMode mode, boolean summary) {
+        var pageable = PageRequest.of(page, size, Sort.by(Sort.Order.desc("year")));
+        var slice = summary
+                ? activityRepository.findActivitySummariesByPersonId(personId, pageable)
+                : activityRepository.findActivityDtosByPersonId(personId, pageable);
+        return CountEstimator.withTotal(slice, mode,
+                () -> activityRepository.countByPersonId(personId),
+                () -> countEstimator.estimate("activities:" + personId, cap -> activityRepository.countByPersonIdUpTo(personId, cap)));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ActivityResponseDto> searchActivityDtosByTitle(String q, int page, int size, CountMode mode, boolean summary) {
+        var pageable = PageRequest.of(page, size, Sort.by(Sort.Order.desc("year")));
+        var slice = summary
+                ? activityRepository.searchActivitySummariesByTitle(LikePatterns.contains(q), pageable)
+                : activityRepository.searchActivityDtosByTitle(LikePatterns.contains(q), pageable);
+        return CountEstimator.withTotal(slice, mode,
+                () -> activityRepository.countByTitleContainingIgnoreCase(q),
+                () -> countEstimator.estimate("activities:search:" + q,
+                        cap -> activityRepository.countByTitlePatternUpTo(LikePatterns.contains(q), cap)));
+    }
+
+    // latest activities of each person (summary rows), keyed in request order; persons without
+    // activities map to an empty list
+    @Transactional(readOnly = true)
+    public Map<UUID, List<ActivityResponseDto>> recentByPersons(Collection<UUID> personIds, int limit) {
+        var result = new LinkedHashMap<UUID, List<ActivityResponseDto>>();
+        for (var id : personIds) {
+            result.put(id, new ArrayList<>(limit));
+        }
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        for (var r : activityRepository.findRecentByPersonIds(result.keySet(), limit)) {
+            result.get(r.getPersonId())
+                    .add(new ActivityResponseDto(r.getId(), r.getYear(), r.getType(), r.getTitle(), r.getUrl()));
+        }
+        return result;
+    }
+
+    // prefix of the normalised title (accents and case ignored), served by idx_activity_title_key
+    @Transactional(readOnly = true)
+    public Slice<ActivityResponseDto> searchActivityDtosByTitlePrefix(String q, int page, int size, CountMode mode, boolean summary) {
+        var pattern = LikePatterns.prefix(q);
+        var pageable = PageRequest.of(page, size, Sort.by("titleKey", "id"));
+        var slice = summary
+                ? activityRepository.searchActivitySummariesByTitlePrefix(pattern, pageable)
+                : activityRepository.searchActivityDtosByTitlePrefix(pattern, pageable);
+        return CountEstimator.withTotal(slice, mode,
+                () -> activityRepository.countByTitleKeyPrefix(pattern),
+                () -> countEstimator.estimate("activities:prefix:" + pattern, cap -> activityRepository.countByTitleKeyPrefixUpTo(pattern, cap)));
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityDescriptionDto getDescription(UUID activityId) {
+        return activityRepository.findDescriptionById(activityId)
+                .orElseThrow(() -> new NotFoundException("Activity not found"));
+    }
 }
@@ -0,0 +1,33 @@
+package resume.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// runs in-memory side effects (indexes, caches) only once the surrounding transaction committed
+public final class AfterCommit {
+
+    // set while this thread runs after-commit callbacks: the transaction is over, and a callback
+    // registered from one of them would never be called, so those run at once
+    private static final ThreadLocal<Boolean> COMMITTED = ThreadLocal.withInitial(() -> false);
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable r) {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !COMMITTED.get()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    COMMITTED.set(true);
+                    try {
+                        r.run();
+                    } finally {
+                        COMMITTED.remove();
+                    }
+                }
+            });
+        } else {
+            r.run();
+        }
+    }
+}
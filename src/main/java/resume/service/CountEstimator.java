@@ -0,0 +1,77 @@
+package resume.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+
+// Totals for approxTotal=true. Whole tables come from the database's own row count estimate
+// (H2 keeps one per table, no scan); filtered totals are counted up to app.count-estimate.cap
+// rows, so a broad filter stops early and reports the cap. Both are cached for a short while in
+// a bounded cache (least recently used keys are evicted first).
+@Component
+public class CountEstimator {
+
+    static final String TABLE_ROWS = """
+            select "ROW_COUNT_ESTIMATE" from "INFORMATION_SCHEMA"."TABLES"
+            where "TABLE_SCHEMA" = current_schema and "TABLE_NAME" = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Long> cache;
+    private final int cap;
+
+    public CountEstimator(JdbcTemplate jdbcTemplate,
+                          @Value("${app.count-estimate.ttl:60s}") Duration ttl,
+                          @Value("${app.count-estimate.max-entries:1024}") long maxEntries,
+                          @Value("${app.count-estimate.cap:1000}") int cap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.cap = cap;
+    }
+
+    // rows matching a filter, counted up to the cap: cappedCount gets the cap and must stop there
+    public long estimate(String key, IntToLongFunction cappedCount) {
+        return cache.get(key, k -> Math.min(cappedCount.applyAsLong(cap), cap));
+    }
+
+    // every row of a table; the exact count only when the database has no estimate for it
+    public long tableRows(String table, LongSupplier exact) {
+        return cache.get("table:" + table, k -> {
+            try {
+                var rows = jdbcTemplate.queryForList(TABLE_ROWS, Long.class, table);
+                if (!rows.isEmpty() && rows.get(0) != null) {
+                    return rows.get(0);
+                }
+            } catch (DataAccessException e) {
+                // not H2: no INFORMATION_SCHEMA row estimate
+            }
+            return exact.getAsLong();
+        });
+    }
+
+    // never report fewer rows than the slice itself proves exist
+    public static <T> Page<T> toPage(Slice<T> slice, long estimate) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(estimate, seen));
+    }
+
+    public static <T> Slice<T> withTotal(Slice<T> slice, CountMode mode, LongSupplier exact, LongSupplier estimate) {
+        return switch (mode) {
+            case NONE -> slice;
+            case ESTIMATE -> toPage(slice, estimate.getAsLong());
+            case EXACT -> new PageImpl<>(slice.getContent(), slice.getPageable(), exact.getAsLong());
+        };
+    }
+}
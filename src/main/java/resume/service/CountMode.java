@@ -0,0 +1,14 @@
+package resume.service;
+
+public enum CountMode {
+    EXACT, // count query on every request
+    ESTIMATE, // cached count, refreshed by CountEstimator
+    NONE; // Slice only: has-next, no total
+
+    public static CountMode of(boolean withTotal, boolean approximate) {
+        if (!withTotal) {
+            return NONE;
+        }
+        return approximate ? ESTIMATE : EXACT;
+    }
+}
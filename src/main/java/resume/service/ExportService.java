@@ -0,0 +1,66 @@
+package resume.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import resume.model.Activity;
+import resume.model.Person;
+import resume.repository.ActivityRepository;
+import resume.repository.PersonRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+@Service
+public class ExportService {
+
+    private final PersonRepository personRepository;
+    private final ActivityRepository activityRepository;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public ExportService(PersonRepository personRepository,
+                         ActivityRepository activityRepository,
+                         EntityManager entityManager,
+                         @Value("${app.export.chunk-size:500}") int chunkSize) {
+        this.personRepository = personRepository;
+        this.activityRepository = activityRepository;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    // forward-only cursor over persons; activities are loaded per chunk and the
+    // persistence context is cleared after each one, so memory does not grow with the table
+    @Transactional(readOnly = true)
+    public void exportPersons(BiConsumer<Person, List<Activity>> sink) {
+        var chunk = new ArrayList<Person>(chunkSize);
+
+        try (var persons = personRepository.streamAll()) {
+            persons.forEach(p -> {
+                chunk.add(p);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, sink);
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, sink);
+        }
+    }
+
+    private void writeChunk(List<Person> chunk, BiConsumer<Person, List<Activity>> sink) {
+        var ids = chunk.stream().map(Person::getId).toList();
+        var byPerson = activityRepository.findByPersonIdInOrderByYearDesc(ids).stream()
+                .collect(Collectors.groupingBy(a -> a.getPerson().getId()));
+
+        for (var p : chunk) {
+            sink.accept(p, byPerson.getOrDefault(p.getId(), List.<Activity>of()));
+        }
+
+        chunk.clear();
+        entityManager.clear();
+    }
+}
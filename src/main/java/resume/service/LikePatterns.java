@@ -0,0 +1,27 @@
+package resume.service;
+
+import resume.model.SearchKeys;
+
+import java.util.Locale;
+
+// LIKE patterns bound as a single parameter (escape '\'), instead of lower(concat(...)) evaluated per row
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String contains(String q) {
+        return "%" + escape(q.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    // matches the persisted *_key columns; no leading wildcard, so their indexes can be range-scanned
+    public static String prefix(String q) {
+        return escape(SearchKeys.normalize(q)) + "%";
+    }
+
+    static String escape(String s) {
+        return s.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
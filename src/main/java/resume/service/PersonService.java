@@ -1,29 +1,62 @@
 package resume.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import resume.model.ActivityType;
 import resume.model.Person;
+import resume.model.SearchKeys;
+import resume.repository.ActivityRepository;
 import resume.repository.PersonRepository;
+import resume.repository.projection.ActivityStatsView;
+import resume.service.cache.CredentialCache;
+import resume.service.cache.CvCache;
+import resume.service.search.ActivityFacetIndex;
+import resume.service.search.ActivityTextIndex;
+import resume.service.search.PersonNameIndex;
+import resume.service.search.PersonSearchIndex;
+import resume.service.views.PersonViewCounter;
+import resume.web.dto.person.PersonResponseDto;
+import resume.web.dto.person.PersonStatsResponseDto;
+import resume.web.dto.person.PersonSuggestionDto;
 import resume.web.dto.person.PersonUpdateRequestDto;
-import resume.web.security.PasswordHasher;
+import resume.web.dto.person.PersonViewsDto;
 import resume.web.dto.person.PersonCreateRequestDto;
 import resume.service.exceptions.*;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PersonService {
 
     private final PersonRepository personRepository;
-    private final PasswordHasher passwordHasher;
+    private final ActivityRepository activityRepository;
+    private final PersonSearchIndex searchIndex;
+    private final PersonNameIndex nameIndex;
+    private final ActivityFacetIndex facetIndex;
+    private final ActivityTextIndex textIndex;
+    private final CountEstimator countEstimator;
+    private final CvCache cvCache;
+    private final CredentialCache credentialCache;
+    private final PersonViewCounter viewCounter;
 
+    // the caller hashes the password first: BCrypt must not run while a transaction holds a connection
     @Transactional
-    public Person createPerson(PersonCreateRequestDto req, UUID creatorId) {
+    public Person createPerson(PersonCreateRequestDto req, String passwordHash, UUID creatorId) {
         if (creatorId == null) {
             throw new ForbiddenException("You must be authenticated to create a person (cooptation)");
         }
@@ -42,10 +75,13 @@ public class PersonService {
                 .email(req.email())
                 .website(req.website())
                 .birthDate(req.birthDate())
-                .passwordHash(passwordHasher.hash(req.rawPassword()))
+                .passwordHash(passwordHash)
                 .build();
 
-        return personRepository.save(p);
+        var saved = personRepository.save(p);
+        searchIndex.indexPerson(saved.getId(), saved.getFirstName(), saved.getLastName());
+        nameIndex.indexPerson(saved.getId(), saved.getFirstName(), saved.getLastName());
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -54,30 +90,54 @@ public class PersonService {
                 .orElseThrow(() -> new NotFoundException("Person not found"));
     }
 
+    // CV without activity descriptions: two projection queries, the @Lob column is never read
+    @Transactional(readOnly = true)
+    public PersonResponseDto getPersonSummary(UUID id) {
+        var p = personRepository.findPersonDtosByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Person not found"));
+
+        return new PersonResponseDto(
+                p.id(), p.firstName(), p.lastName(), p.email(), p.website(), p.birthDate(),
+                activityRepository.findAllActivitySummariesByPersonId(id),
+                p.version()
+        );
+    }
+
+    // one conditional UPDATE instead of read-modify-write; expectedVersion comes from If-Match (null = unconditional).
+    // The row is read once afterwards, for the response and the indexes.
     @Transactional
-    public Person updatePerson(UUID personId, UUID authPersonId, PersonUpdateRequestDto dto) {
+    public Person updatePerson(UUID personId, UUID authPersonId, PersonUpdateRequestDto dto, Long expectedVersion) {
 
         if (!personId.equals(authPersonId)) {
             throw new ForbiddenException("You can update only your profile");
         }
 
-        var p = personRepository.findById(personId)
-                .orElseThrow(() -> new NotFoundException("Person not found"));
+        String firstName = blankToNull(dto.firstName());
+        String lastName = blankToNull(dto.lastName());
+        int updated = personRepository.updateIfVersion(personId, expectedVersion,
+                firstName, firstName == null ? null : SearchKeys.normalize(firstName),
+                lastName, lastName == null ? null : SearchKeys.normalize(lastName),
+                dto.website(), dto.birthDate());
 
-        if (dto.firstName() != null && !dto.firstName().isBlank()) {
-            p.setFirstName(dto.firstName());
-        }
-        if (dto.lastName() != null && !dto.lastName().isBlank()) {
-            p.setLastName(dto.lastName());
-        }
-        if (dto.website() != null) {
-            p.setWebsite(dto.website());
-        }
-        if (dto.birthDate() != null) {
-            p.setBirthDate(dto.birthDate());
+        if (updated == 0) {
+            if (!personRepository.existsById(personId)) {
+                throw new NotFoundException("Person not found");
+            }
+            throw new PreconditionFailedException("Person was modified since version " + expectedVersion);
         }
 
-        return personRepository.save(p);
+        var saved = personRepository.findWithActivitiesById(personId)
+                .orElseThrow(() -> new NotFoundException("Person not found"));
+        searchIndex.indexPerson(saved.getId(), saved.getFirstName(), saved.getLastName());
+        nameIndex.indexPerson(saved.getId(), saved.getFirstName(), saved.getLastName());
+        cvCache.invalidate(personId);
+        credentialCache.invalidate(saved.getEmail());
+        return saved;
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
     }
 
 
@@ -90,6 +150,13 @@ public class PersonService {
                 .orElseThrow(() -> new NotFoundException("Person not found"));
 
         personRepository.delete(p);
+        searchIndex.removePerson(personId);
+        nameIndex.removePerson(personId);
+        facetIndex.removePerson(personId);
+        textIndex.removePerson(personId);
+        viewCounter.removePerson(personId);
+        cvCache.invalidate(personId);
+        credentialCache.invalidate(p.getEmail());
     }
 
     @Transactional(readOnly = true)
@@ -97,11 +164,138 @@ public class PersonService {
         return personRepository.findAll(PageRequest.of(page, size, Sort.by("lastName").ascending()));
     }
 
+    @Transactional(readOnly = true)
+    public List<Person> listPersonsAfter(String lastName, UUID id, int size) {
+        if (lastName == null || id == null) {
+            return personRepository.findFirstByLastName(Limit.of(size));
+        }
+        return personRepository.findAfterByLastName(lastName, id, Limit.of(size));
+    }
+
+    @Transactional(readOnly = true)
+    public long countPersons() {
+        return personRepository.count();
+    }
+
     @Transactional(readOnly = true)
     public Page<Person> searchPersons(String q, int page, int size) {
-        return personRepository.searchByNameOrActivityTitle(
-                q,
-                PageRequest.of(page, size, Sort.by("lastName").ascending())
-        );
+        var pageable = PageRequest.of(page, size, Sort.by("lastName").ascending());
+
+        if (!searchIndex.isReady()) {
+            return personRepository.searchByNameOrActivityTitle(q, pageable);
+        }
+
+        var hits = searchIndex.search(q, page, size);
+        var byId = personRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+
+        var content = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PersonResponseDto> listPersonDtos(int page, int size, CountMode mode) {
+        var slice = personRepository.findPersonDtos(PageRequest.of(page, size, Sort.by("lastName").ascending()));
+        return CountEstimator.withTotal(slice, mode,
+                personRepository::count,
+                () -> countEstimator.tableRows("persons", personRepository::count));
+    }
+
+    // autocomplete: answered from memory, no transaction needed
+    public List<PersonSuggestionDto> suggestNames(String q, int limit) {
+        if (!nameIndex.isReady()) {
+            throw new ServiceUnavailableException("Name index is still building", 1);
+        }
+        return nameIndex.suggest(q, limit).stream()
+                .map(n -> new PersonSuggestionDto(n.id(), n.firstName(), n.lastName()))
+                .toList();
+    }
+
+    // popularity ranking as of the last view-count flush; names come from the name index
+    public List<PersonViewsDto> mostViewed(int limit) {
+        if (!viewCounter.isReady() || !nameIndex.isReady()) {
+            throw new ServiceUnavailableException("View counts are still loading", 1);
+        }
+        return viewCounter.top(limit).stream()
+                .map(r -> {
+                    var n = nameIndex.get(r.id());
+                    return n == null ? null : new PersonViewsDto(r.id(), n.firstName(), n.lastName(), r.views());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PersonStatsResponseDto> listPersonStats(int page, int size, CountMode mode) {
+        return withActivityStats(listPersonDtos(page, size, mode));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PersonStatsResponseDto> searchPersonStats(String q, int page, int size, CountMode mode, boolean prefix) {
+        return withActivityStats(prefix
+                ? searchPersonDtosByPrefix(q, page, size, mode)
+                : searchPersonDtos(q, page, size, mode));
+    }
+
+    // one grouped query for the whole page instead of touching Person.activities row by row
+    private Slice<PersonStatsResponseDto> withActivityStats(Slice<PersonResponseDto> slice) {
+        var ids = slice.getContent().stream().map(PersonResponseDto::id).toList();
+        var byPerson = ids.isEmpty()
+                ? Map.<UUID, List<ActivityStatsView>>of()
+                : activityRepository.findStatsByPersonIds(ids).stream()
+                        .collect(Collectors.groupingBy(ActivityStatsView::getPersonId));
+
+        return slice.map(p -> {
+            var types = new EnumMap<ActivityType, Long>(ActivityType.class);
+            long count = 0;
+            Integer latestYear = null;
+            for (var row : byPerson.getOrDefault(p.id(), List.of())) {
+                types.put(row.getType(), row.getTotal());
+                count += row.getTotal();
+                latestYear = latestYear == null ? row.getLatestYear() : Math.max(latestYear, row.getLatestYear());
+            }
+            return new PersonStatsResponseDto(p.id(), p.firstName(), p.lastName(), p.email(),
+                    p.website(), p.birthDate(), count, latestYear, types);
+        });
+    }
+
+    // prefix of the normalised first or last name (accents and case ignored), served by the *_name_key indexes
+    @Transactional(readOnly = true)
+    public Slice<PersonResponseDto> searchPersonDtosByPrefix(String q, int page, int size, CountMode mode) {
+        var pattern = LikePatterns.prefix(q);
+        var slice = personRepository.searchPersonDtosByPrefix(pattern, PageRequest.of(page, size, Sort.by("lastNameKey", "id")));
+        return CountEstimator.withTotal(slice, mode,
+                () -> personRepository.countByNameKeyPrefix(pattern),
+                () -> countEstimator.estimate("persons:prefix:" + pattern, cap -> personRepository.countByNameKeyPrefixUpTo(pattern, cap)));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PersonResponseDto> searchPersonDtos(String q, int page, int size, CountMode mode) {
+        var pageable = PageRequest.of(page, size, Sort.by("lastName").ascending());
+
+        if (searchIndex.isReady()) {
+            var hits = searchIndex.search(q, page, size);
+            var byId = hits.ids().isEmpty()
+                    ? Map.<UUID, PersonResponseDto>of()
+                    : personRepository.findPersonDtosByIdIn(hits.ids()).stream()
+                            .collect(Collectors.toMap(PersonResponseDto::id, Function.identity()));
+
+            var content = hits.ids().stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            var result = new PageImpl<>(content, pageable, hits.total());
+            return mode == CountMode.NONE ? new SliceImpl<>(content, pageable, result.hasNext()) : result;
+        }
+
+        var slice = personRepository.searchPersonDtos(q, pageable);
+        return CountEstimator.withTotal(slice, mode,
+                () -> personRepository.countByNameOrActivityTitle(q),
+                () -> countEstimator.estimate("persons:search:" + q, cap -> personRepository.countByNameOrActivityTitleUpTo(q, cap)));
     }
-}
\ No newline at end of file
+}
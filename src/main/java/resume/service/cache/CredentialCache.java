@@ -0,0 +1,60 @@
+package resume.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import resume.repository.projection.CredentialView;
+import resume.service.AfterCommit;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+// login credentials (id, email, hash) by case-normalised email; unknown emails are not cached
+@Component
+public class CredentialCache {
+
+    public record Credentials(UUID id, String email, String passwordHash) {}
+
+    private final Cache<String, Credentials> cache;
+
+    public CredentialCache(@Value("${app.credential-cache.max-size:10000}") long maxSize,
+                           @Value("${app.credential-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Credentials> get(String email, Function<String, Optional<CredentialView>> loader) {
+        var cached = cache.getIfPresent(normalize(email));
+        // emails are stored as typed, so a hit only counts for the exact spelling
+        if (cached != null && cached.email().equals(email)) {
+            return Optional.of(cached);
+        }
+
+        var loaded = loader.apply(email)
+                .map(v -> new Credentials(v.getId(), v.getEmail(), v.getPasswordHash()));
+        loaded.ifPresent(c -> cache.put(normalize(c.email()), c));
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        AfterCommit.run(() -> cache.invalidate(normalize(email)));
+    }
+
+    public Cache<String, Credentials> nativeCache() {
+        return cache;
+    }
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
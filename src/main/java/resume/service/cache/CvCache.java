@@ -0,0 +1,112 @@
+package resume.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import resume.service.AfterCommit;
+import resume.web.dto.person.PersonResponseDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// rendered CVs (person + all activities) by person id, invalidated by every write touching that CV.
+// With app.cv-cache.serialized, each entry also keeps its JSON bytes (and a gzip copy above
+// app.cv-cache.gzip-min-bytes), built once per CV version and dropped with it.
+@Component
+public class CvCache {
+
+    public record CachedCv(PersonResponseDto body, String etag, Encoded encoded) {}
+
+    // gzip is null when the payload is too small to be worth compressing
+    public record Encoded(byte[] json, byte[] gzip) {}
+
+    private final Cache<UUID, CachedCv> cache;
+    private final ObjectMapper objectMapper;
+    private final boolean serialized;
+    private final int gzipMinBytes;
+
+    public CvCache(@Value("${app.cv-cache.max-size:10000}") long maxSize,
+                   @Value("${app.cv-cache.ttl:10m}") Duration ttl,
+                   @Value("${app.cv-cache.serialized:true}") boolean serialized,
+                   @Value("${app.cv-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                   ObjectMapper objectMapper) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.serialized = serialized;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    public CachedCv get(UUID personId, Supplier<PersonResponseDto> loader) {
+        return cache.get(personId, id -> {
+            var body = loader.get();
+            var json = toJson(body);
+            return new CachedCv(body, etagOf(body.version(), json), serialized ? encode(json) : null);
+        });
+    }
+
+    // the tag a GET of this body answers with (summary CVs and PUT responses are not cached)
+    public String etagOf(PersonResponseDto body) {
+        return etagOf(body.version(), toJson(body));
+    }
+
+    public void invalidate(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> cache.invalidate(personId));
+    }
+
+    public Cache<UUID, CachedCv> nativeCache() {
+        return cache;
+    }
+
+    private Encoded encode(byte[] json) {
+        return new Encoded(json, json.length >= gzipMinBytes ? gzip(json) : null);
+    }
+
+    private byte[] toJson(PersonResponseDto body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] gzip(byte[] data) {
+        var out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (var gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // hash of the JSON bytes sent to the client, so the tag survives evictions and restarts;
+    // prefixed with the person's version ("<version>.<hash>") when the body has one, so the same
+    // tag works as If-Match on PUT
+    static String etagOf(Long version, byte[] json) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(json);
+            var hash = Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+            return "\"" + (version == null ? "" : version + ".") + hash + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
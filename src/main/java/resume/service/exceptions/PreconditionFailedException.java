@@ -0,0 +1,9 @@
+package resume.service.exceptions;
+
+// If-Match did not match: the row was changed (or its version is unknown) since the client read it
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
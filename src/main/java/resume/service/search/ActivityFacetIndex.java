@@ -0,0 +1,292 @@
+package resume.service.search;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import resume.model.ActivityType;
+import resume.repository.ActivityRepository;
+import resume.service.AfterCommit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Activities bucketed by (year, type). Facet counts are read from bucket sizes, and
+ * a page is cut by skipping whole buckets, so a query never scans the activities table.
+ * Results are ordered by year desc, then type, then id. Entries are checkpointed on shutdown
+ * (see {@link IndexCheckpoint}).
+ */
+@Component
+@RequiredArgsConstructor
+public class ActivityFacetIndex implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(ActivityFacetIndex.class);
+
+    static final String CHECKPOINT = "activity-facets";
+
+    private static final ActivityType[] TYPES = ActivityType.values();
+
+    private final ActivityRepository activityRepository;
+    private final IndexCheckpoint checkpoint;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<UUID, Set<UUID>> byPerson = new HashMap<>();
+    private final NavigableMap<Integer, Map<ActivityType, NavigableMap<UUID, Entry>>> buckets =
+            new TreeMap<>(Comparator.reverseOrder());
+
+    private volatile boolean ready;
+
+    public record Query(String q, Set<ActivityType> types, Integer fromYear, Integer toYear, int yearBucket) {}
+
+    public record Hits(List<UUID> ids, long total, Map<ActivityType, Long> types, Map<Integer, Long> years) {}
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        lock.writeLock().lock();
+        try {
+            if (checkpoint.restore(CHECKPOINT, activityRepository::count, this::readSnapshot)) {
+                ready = true;
+                logger.info("Activity facet index restored: " + entries.size() + " activities, "
+                        + buckets.size() + " years");
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            entries.clear();
+            byPerson.clear();
+            buckets.clear();
+
+            for (var a : activityRepository.findAllFacets()) {
+                add(new Entry(a.getId(), a.getPersonId(), a.getType(), a.getYear(), normalize(a.getTitle())));
+            }
+            ready = true;
+            logger.info("Activity facet index built: " + entries.size() + " activities, "
+                    + buckets.size() + " years");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (!ready || !checkpoint.isEnabled()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            checkpoint.save(CHECKPOINT, entries.size(), this::writeSnapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(Query query, int page, int size) {
+        String key = normalize(query.q());
+        var selected = query.types() == null || query.types().isEmpty()
+                ? EnumSet.allOf(ActivityType.class)
+                : EnumSet.copyOf(query.types());
+        int from = query.fromYear() != null ? query.fromYear() : Integer.MIN_VALUE;
+        int to = query.toYear() != null ? query.toYear() : Integer.MAX_VALUE;
+        int bucket = Math.max(1, query.yearBucket());
+
+        lock.readLock().lock();
+        try {
+            // matching count per (year, type); bucket sizes when there is no text filter
+            var counts = new LinkedHashMap<Integer, long[]>();
+            for (var byYear : buckets.entrySet()) {
+                var c = new long[TYPES.length];
+                for (var cell : byYear.getValue().entrySet()) {
+                    c[cell.getKey().ordinal()] = key.isEmpty()
+                            ? cell.getValue().size()
+                            : cell.getValue().values().stream().filter(e -> e.title.contains(key)).count();
+                }
+                counts.put(byYear.getKey(), c);
+            }
+
+            // each facet is counted with every filter except its own
+            var typeFacet = new EnumMap<ActivityType, Long>(ActivityType.class);
+            var yearFacet = new TreeMap<Integer, Long>(Comparator.reverseOrder());
+            long total = 0;
+            for (var e : counts.entrySet()) {
+                int year = e.getKey();
+                boolean inRange = year >= from && year <= to;
+                for (var t : TYPES) {
+                    long n = e.getValue()[t.ordinal()];
+                    if (n == 0) {
+                        continue;
+                    }
+                    if (inRange) {
+                        typeFacet.merge(t, n, Long::sum);
+                    }
+                    if (selected.contains(t)) {
+                        yearFacet.merge(year - Math.floorMod(year, bucket), n, Long::sum);
+                        if (inRange) {
+                            total += n;
+                        }
+                    }
+                }
+            }
+
+            var ids = new ArrayList<UUID>(size);
+            long skip = (long) page * size;
+            var years = from <= to ? buckets.subMap(to, true, from, true).keySet() : Set.<Integer>of();
+            outer:
+            for (int year : years) {
+                var c = counts.get(year);
+                for (var t : TYPES) {
+                    long n = c[t.ordinal()];
+                    if (n == 0 || !selected.contains(t)) {
+                        continue;
+                    }
+                    if (skip >= n) {
+                        skip -= n;
+                        continue;
+                    }
+                    for (var entry : buckets.get(year).get(t).values()) {
+                        if (!key.isEmpty() && !entry.title.contains(key)) {
+                            continue;
+                        }
+                        if (skip > 0) {
+                            skip--;
+                            continue;
+                        }
+                        ids.add(entry.id);
+                        if (ids.size() == size) {
+                            break outer;
+                        }
+                    }
+                }
+            }
+            return new Hits(ids, total, typeFacet, yearFacet);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void indexActivity(UUID personId, UUID activityId, ActivityType type, int year, String title) {
+        if (personId == null || activityId == null || type == null) {
+            return;
+        }
+        var entry = new Entry(activityId, personId, type, year, normalize(title));
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(activityId);
+                add(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeActivity(UUID activityId) {
+        if (activityId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(activityId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removePerson(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                var ids = byPerson.get(personId);
+                if (ids != null) {
+                    for (var id : List.copyOf(ids)) {
+                        remove(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void add(Entry e) {
+        entries.put(e.id, e);
+        byPerson.computeIfAbsent(e.personId, k -> new HashSet<>()).add(e.id);
+        buckets.computeIfAbsent(e.year, k -> new EnumMap<>(ActivityType.class))
+                .computeIfAbsent(e.type, k -> new TreeMap<>())
+                .put(e.id, e);
+    }
+
+    private void remove(UUID activityId) {
+        var e = entries.remove(activityId);
+        if (e == null) {
+            return;
+        }
+        var ids = byPerson.get(e.personId);
+        if (ids != null && ids.remove(e.id) && ids.isEmpty()) {
+            byPerson.remove(e.personId);
+        }
+        var byType = buckets.get(e.year);
+        var cell = byType.get(e.type);
+        cell.remove(e.id);
+        if (cell.isEmpty()) {
+            byType.remove(e.type);
+            if (byType.isEmpty()) {
+                buckets.remove(e.year);
+            }
+        }
+    }
+
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(entries.size());
+        for (var e : entries.values()) {
+            PersonSearchIndex.writeUuid(out, e.id);
+            PersonSearchIndex.writeUuid(out, e.personId);
+            out.writeUTF(e.type.name());
+            out.writeInt(e.year);
+            out.writeUTF(e.title);
+        }
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        entries.clear();
+        byPerson.clear();
+        buckets.clear();
+
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            add(new Entry(PersonSearchIndex.readUuid(in), PersonSearchIndex.readUuid(in),
+                    ActivityType.valueOf(in.readUTF()), in.readInt(), in.readUTF()));
+        }
+    }
+
+    static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(UUID id, UUID personId, ActivityType type, int year, String title) {}
+}
@@ -0,0 +1,331 @@
+package resume.service.search;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import resume.model.Activity;
+import resume.repository.ActivityRepository;
+import resume.repository.projection.ActivityTextView;
+import resume.service.AfterCommit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Lucene index over activity titles and descriptions. Each text is indexed twice, with the
+ * English and the French analyzer (stemming + stop words), and ranked with BM25; title
+ * matches weigh more than description matches.
+ *
+ * <p>{@code app.fulltext.rebuild} decides what happens at startup: {@code always} re-reads
+ * the activities table, {@code if-empty} only when the index on disk has no documents, was
+ * not closed cleanly (updates since the last commit may be lost) or does not hold one
+ * document per activity, {@code never} keeps the index as it is.
+ */
+@Component
+public class ActivityTextIndex implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(ActivityTextIndex.class);
+
+    static final String ID = "id";
+    static final String PERSON_ID = "personId";
+    static final String TITLE_EN = "title_en";
+    static final String TITLE_FR = "title_fr";
+    static final String DESCRIPTION_EN = "description_en";
+    static final String DESCRIPTION_FR = "description_fr";
+
+    private static final float TITLE_BOOST = 2f;
+
+    // commit user data: "true" only in the commit written by a clean shutdown
+    static final String CLEAN = "clean";
+
+    private final ActivityRepository activityRepository;
+    private final String rebuildMode;
+
+    private final Analyzer analyzer;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    private volatile boolean ready;
+
+    public record Hit(UUID id, float score) {}
+
+    public record Hits(List<Hit> hits, long total) {}
+
+    public ActivityTextIndex(ActivityRepository activityRepository,
+                             @Value("${app.fulltext.dir:}") String dir,
+                             @Value("${app.fulltext.rebuild:if-empty}") String rebuildMode) throws IOException {
+        this.activityRepository = activityRepository;
+        this.rebuildMode = rebuildMode;
+        this.analyzer = analyzer();
+        this.directory = dir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(dir));
+
+        var config = new IndexWriterConfig(analyzer)
+                .setSimilarity(new BM25Similarity())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previous) {
+                var searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void onStartup() {
+        boolean clean = wasClosedCleanly();
+        // until the next clean shutdown, every commit says the index may miss updates
+        writer.setLiveCommitData(Map.of(CLEAN, "false").entrySet());
+
+        switch (rebuildMode) {
+            case "never" -> ready = true;
+            case "if-empty" -> {
+                int docs = writer.getDocStats().numDocs;
+                if (docs == 0 || !clean || docs != activityRepository.count()) {
+                    rebuild();
+                } else {
+                    commit();
+                    ready = true;
+                    logger.info("Activity full-text index reused: " + docs + " documents");
+                }
+            }
+            default -> rebuild();
+        }
+    }
+
+    private boolean wasClosedCleanly() {
+        for (var e : writer.getLiveCommitData()) {
+            if (e.getKey().equals(CLEAN)) {
+                return e.getValue().equals("true");
+            }
+        }
+        return false;
+    }
+
+    private void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // callers must hold a read-only transaction: the rows are streamed
+    public void rebuild() {
+        ready = false;
+        try {
+            writer.deleteAll();
+            long n;
+            try (var rows = activityRepository.streamAllText()) {
+                n = rows.mapToLong(a -> {
+                    add(document(a.getId(), a.getPersonId(), a.getTitle(), a.getDescription()));
+                    return 1;
+                }).sum();
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            logger.info("Activity full-text index built: " + n + " documents");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Hits search(String q, int page, int size) {
+        var query = query(q);
+        if (query == null) {
+            return new Hits(List.of(), 0);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            // the collector preallocates n slots: never more than there are documents
+            int maxDoc = searcher.getIndexReader().maxDoc();
+            long from = (long) page * size;
+            if (from >= maxDoc) {
+                return new Hits(List.of(), searcher.count(query));
+            }
+            int n = (int) Math.min(from + size, maxDoc);
+            var top = searcher.search(query, new TopScoreDocCollectorManager(n, Integer.MAX_VALUE));
+
+            var stored = searcher.storedFields();
+            var hits = new ArrayList<Hit>(Math.max(0, top.scoreDocs.length - (int) from));
+            for (int i = (int) from; i < top.scoreDocs.length; i++) {
+                var sd = top.scoreDocs[i];
+                hits.add(new Hit(UUID.fromString(stored.document(sd.doc).get(ID)), sd.score));
+            }
+            return new Hits(hits, top.totalHits.value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    public void indexActivity(Activity a) {
+        indexActivities(List.of(a));
+    }
+
+    public void indexActivities(List<Activity> activities) {
+        // documents are built now, while the entities are still attached
+        var docs = activities.stream()
+                .filter(a -> a.getId() != null && a.getPerson() != null)
+                .map(a -> document(a.getId(), a.getPerson().getId(), a.getTitle(), a.getDescription()))
+                .toList();
+        addAfterCommit(docs);
+    }
+
+    public void indexTexts(List<? extends ActivityTextView> rows) {
+        addAfterCommit(rows.stream()
+                .map(a -> document(a.getId(), a.getPersonId(), a.getTitle(), a.getDescription()))
+                .toList());
+    }
+
+    private void addAfterCommit(List<Document> docs) {
+        if (docs.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> apply(() -> {
+            for (var d : docs) {
+                add(d);
+            }
+        }));
+    }
+
+    public void removeActivity(UUID activityId) {
+        if (activityId == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(() -> writer.deleteDocuments(new Term(ID, activityId.toString()))));
+    }
+
+    public void removePerson(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(() -> writer.deleteDocuments(new Term(PERSON_ID, personId.toString()))));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (ready) {
+            writer.setLiveCommitData(Map.of(CLEAN, "true").entrySet());
+            writer.commit();
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    Query query(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        var builder = new QueryBuilder(analyzer);
+        var bq = new BooleanQuery.Builder();
+        int clauses = 0;
+        for (var field : List.of(TITLE_EN, TITLE_FR, DESCRIPTION_EN, DESCRIPTION_FR)) {
+            var fq = builder.createBooleanQuery(field, q);
+            if (fq == null) {
+                continue;
+            }
+            float boost = field.startsWith("title") ? TITLE_BOOST : 1f;
+            bq.add(new BoostQuery(fq, boost), BooleanClause.Occur.SHOULD);
+            clauses++;
+        }
+        return clauses == 0 ? null : bq.build();
+    }
+
+    private void add(Document doc) {
+        try {
+            writer.updateDocument(new Term(ID, doc.get(ID)), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void apply(IOAction action) {
+        try {
+            action.run();
+            // blocking: a refresh already in flight may have missed this write
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document document(UUID id, UUID personId, String title, String description) {
+        var doc = new Document();
+        doc.add(new StringField(ID, id.toString(), Field.Store.YES));
+        doc.add(new StringField(PERSON_ID, personId.toString(), Field.Store.NO));
+        String t = title == null ? "" : title;
+        String d = description == null ? "" : description;
+        doc.add(new TextField(TITLE_EN, t, Field.Store.NO));
+        doc.add(new TextField(TITLE_FR, t, Field.Store.NO));
+        doc.add(new TextField(DESCRIPTION_EN, d, Field.Store.NO));
+        doc.add(new TextField(DESCRIPTION_FR, d, Field.Store.NO));
+        return doc;
+    }
+
+    static Analyzer analyzer() {
+        var english = new EnglishAnalyzer();
+        var french = new FrenchAnalyzer();
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+                TITLE_EN, english,
+                DESCRIPTION_EN, english,
+                TITLE_FR, french,
+                DESCRIPTION_FR, french
+        ));
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,8 @@
+package resume.service.search;
+
+import org.springframework.data.domain.Page;
+import resume.model.ActivityType;
+
+import java.util.Map;
+
+public record FacetPage<T>(Page<T> page, Map<ActivityType, Long> types, Map<Integer, Long> years) {}
@@ -0,0 +1,113 @@
+package resume.service.search;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.LongSupplier;
+
+/**
+ * Snapshot files for the in-memory indexes, so a restart on a populated database does not
+ * have to scan the tables again. An index writes its snapshot when the application shuts
+ * down, and a snapshot is read at most once: it is deleted when the next run restores it,
+ * so after a crash there is nothing to restore and the index is rebuilt from the tables.
+ * The row count stored in the header must also match the database.
+ *
+ * <p>Disabled when {@code app.checkpoint.dir} is empty.
+ */
+@Component
+public class IndexCheckpoint {
+
+    private static final Log logger = LogFactory.getLog(IndexCheckpoint.class);
+
+    private static final int MAGIC = 0x43565043;
+    private static final int FORMAT = 1;
+
+    private final Path dir;
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    public IndexCheckpoint(@Value("${app.checkpoint.dir:}") String dir) {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    // written to a temp file then moved, so a partial snapshot is never picked up
+    public void save(String name, long rows, Writer writer) {
+        if (dir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            var tmp = Files.createTempFile(dir, name, ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(rows);
+                writer.write(out);
+            }
+            Files.move(tmp, file(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Checkpoint written: " + name + " (" + rows + " rows)");
+        } catch (IOException e) {
+            logger.warn("Checkpoint not written: " + name, e);
+        }
+    }
+
+    // true when the index was loaded; false means the caller has to rebuild from the tables
+    public boolean restore(String name, LongSupplier expectedRows, Reader reader) {
+        if (dir == null) {
+            return false;
+        }
+        var file = file(name);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                logger.info("Checkpoint ignored: " + name + " (unknown format)");
+                return false;
+            }
+            long rows = in.readLong();
+            long expected = expectedRows.getAsLong();
+            if (rows != expected) {
+                logger.info("Checkpoint ignored: " + name + " (" + rows + " rows, database has " + expected + ")");
+                return false;
+            }
+            reader.read(in);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Checkpoint ignored: " + name, e);
+            return false;
+        } finally {
+            delete(file);
+        }
+    }
+
+    private Path file(String name) {
+        return dir.resolve(name + ".bin");
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package resume.service.search;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import resume.model.SearchKeys;
+import resume.repository.PersonRepository;
+import resume.service.AfterCommit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted map of normalised person names for autocomplete. Each person is reachable by
+ * "first last" and by "last first", so a prefix of either name matches; keys are lower-cased
+ * and stripped of accents ({@link SearchKeys}). Reads go straight to the skip list, without locking.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonNameIndex implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(PersonNameIndex.class);
+
+    static final String CHECKPOINT = "person-names";
+
+    private final PersonRepository personRepository;
+    private final IndexCheckpoint checkpoint;
+
+    // "<key>\0<id>" -> person: unique keys, still ordered by name
+    private final NavigableMap<String, Name> byKey = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Name> byId = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public record Name(UUID id, String firstName, String lastName) {}
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onStartup() {
+        if (checkpoint.restore(CHECKPOINT, personRepository::count, this::readSnapshot)) {
+            ready = true;
+            logger.info("Person name index restored: " + byId.size() + " persons");
+            return;
+        }
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        ready = false;
+        byKey.clear();
+        byId.clear();
+        for (var p : personRepository.findAllNames()) {
+            put(new Name(p.getId(), p.getFirstName(), p.getLastName()));
+        }
+        ready = true;
+        logger.info("Person name index built: " + byId.size() + " persons");
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (ready && checkpoint.isEnabled()) {
+            checkpoint.save(CHECKPOINT, byId.size(), this::writeSnapshot);
+        }
+    }
+
+    // first `limit` distinct persons whose "first last" or "last first" starts with q
+    public List<Name> suggest(String q, int limit) {
+        String prefix = normalize(q);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        var seen = new LinkedHashMap<UUID, Name>();
+        for (var n : byKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            seen.putIfAbsent(n.id(), n);
+            if (seen.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(seen.values());
+    }
+
+    public Name get(UUID personId) {
+        return byId.get(personId);
+    }
+
+    public void indexPerson(UUID personId, String firstName, String lastName) {
+        if (personId == null) {
+            return;
+        }
+        var name = new Name(personId, firstName, lastName);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                remove(personId);
+                put(name);
+            }
+        });
+    }
+
+    public void removePerson(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                remove(personId);
+            }
+        });
+    }
+
+    private void put(Name n) {
+        byId.put(n.id(), n);
+        for (var key : keys(n)) {
+            byKey.put(key, n);
+        }
+    }
+
+    private void remove(UUID personId) {
+        var old = byId.remove(personId);
+        if (old != null) {
+            for (var key : keys(old)) {
+                byKey.remove(key);
+            }
+        }
+    }
+
+    private static List<String> keys(Name n) {
+        String first = normalize(n.firstName());
+        String last = normalize(n.lastName());
+        String id = "\0" + n.id();
+        return List.of((first + " " + last).trim() + id, (last + " " + first).trim() + id);
+    }
+
+    static String normalize(String s) {
+        return SearchKeys.normalize(s);
+    }
+
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(byId.size());
+        for (var n : byId.values()) {
+            PersonSearchIndex.writeUuid(out, n.id());
+            out.writeUTF(n.firstName() == null ? "" : n.firstName());
+            out.writeUTF(n.lastName() == null ? "" : n.lastName());
+        }
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        byKey.clear();
+        byId.clear();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            put(new Name(PersonSearchIndex.readUuid(in), in.readUTF(), in.readUTF()));
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package resume.service.search;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import resume.repository.ActivityRepository;
+import resume.repository.PersonRepository;
+import resume.service.AfterCommit;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over person first/last names and activity titles.
+ * Answers the same "substring, case-insensitive" question as
+ * {@code PersonRepository.searchByNameOrActivityTitle} without touching the database.
+ * With an {@link IndexCheckpoint}, the documents are saved on shutdown and the next start
+ * only recomputes the postings from them.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonSearchIndex implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(PersonSearchIndex.class);
+
+    static final String CHECKPOINT = "person-search";
+
+    private static final Comparator<Doc> ORDER = Comparator
+            .comparing((Doc d) -> d.lastName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(d -> d.id);
+
+    private final PersonRepository personRepository;
+    private final ActivityRepository activityRepository;
+    private final IndexCheckpoint checkpoint;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Doc> docs = new HashMap<>();
+    private final List<Doc> byOrdinal = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public record Hits(List<UUID> ids, long total) {}
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        lock.writeLock().lock();
+        try {
+            if (checkpoint.restore(CHECKPOINT,
+                    () -> personRepository.count() + activityRepository.count(), this::readSnapshot)) {
+                post();
+                ready = true;
+                logger.info("Person search index restored: " + docs.size() + " persons, "
+                        + postings.size() + " trigrams");
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            docs.clear();
+            byOrdinal.clear();
+            postings.clear();
+
+            for (var p : personRepository.findAllNames()) {
+                var d = new Doc(byOrdinal.size(), p.getId());
+                d.setNames(p.getFirstName(), p.getLastName());
+                docs.put(d.id, d);
+                byOrdinal.add(d);
+            }
+            for (var a : activityRepository.findAllTitles()) {
+                var d = docs.get(a.getPersonId());
+                if (d != null) {
+                    d.titles.put(a.getId(), normalize(a.getTitle()));
+                }
+            }
+            post();
+            ready = true;
+            logger.info("Person search index built: " + docs.size() + " persons, "
+                    + postings.size() + " trigrams");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (!ready || !checkpoint.isEnabled()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            long rows = docs.size() + docs.values().stream().mapToLong(d -> d.titles.size()).sum();
+            checkpoint.save(CHECKPOINT, rows, this::writeSnapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(String q, int page, int size) {
+        String key = normalize(q);
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) (page + 1) * size);
+
+        lock.readLock().lock();
+        try {
+            var top = new PriorityQueue<Doc>(ORDER.reversed());
+            long total = 0;
+
+            for (var d : candidates(key)) {
+                if (!d.matches(key)) {
+                    continue;
+                }
+                total++;
+                if (top.size() < limit) {
+                    top.add(d);
+                } else if (ORDER.compare(d, top.peek()) < 0) {
+                    top.poll();
+                    top.add(d);
+                }
+            }
+
+            var sorted = new ArrayList<>(top);
+            sorted.sort(ORDER);
+            int from = Math.min(sorted.size(), page * size);
+            var ids = sorted.subList(from, sorted.size()).stream().map(d -> d.id).toList();
+            return new Hits(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void indexPerson(UUID personId, String firstName, String lastName) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> mutate(personId, true, d -> d.setNames(firstName, lastName)));
+    }
+
+    public void removePerson(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                var d = docs.remove(personId);
+                if (d != null) {
+                    unpost(d, d.trigrams());
+                    byOrdinal.set(d.ordinal, null);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void indexActivity(UUID personId, UUID activityId, String title) {
+        if (personId == null || activityId == null) {
+            return;
+        }
+        AfterCommit.run(() -> mutate(personId, false, d -> d.titles.put(activityId, normalize(title))));
+    }
+
+    public void removeActivity(UUID personId, UUID activityId) {
+        if (personId == null || activityId == null) {
+            return;
+        }
+        AfterCommit.run(() -> mutate(personId, false, d -> d.titles.remove(activityId)));
+    }
+
+    private void mutate(UUID personId, boolean create, Consumer<Doc> change) {
+        lock.writeLock().lock();
+        try {
+            var d = docs.get(personId);
+            if (d == null) {
+                if (!create) {
+                    return;
+                }
+                d = new Doc(byOrdinal.size(), personId);
+                docs.put(personId, d);
+                byOrdinal.add(d);
+            }
+
+            var before = d.trigrams();
+            change.accept(d);
+            var after = d.trigrams();
+
+            var removed = new HashSet<>(before);
+            removed.removeAll(after);
+            after.removeAll(before);
+
+            unpost(d, removed);
+            for (long t : after) {
+                postings.computeIfAbsent(t, k -> new Postings()).add(d.ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ordinals are assigned in increasing order, so every posting list is built by appends
+    private void post() {
+        for (var d : byOrdinal) {
+            for (long t : d.trigrams()) {
+                postings.computeIfAbsent(t, k -> new Postings()).add(d.ordinal);
+            }
+        }
+    }
+
+    // documents only, in ordinal order; removed persons leave no gap in the snapshot
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(docs.size());
+        for (var d : byOrdinal) {
+            if (d == null) {
+                continue;
+            }
+            writeUuid(out, d.id);
+            out.writeUTF(d.lastName == null ? "" : d.lastName);
+            out.writeUTF(d.firstKey);
+            out.writeUTF(d.lastKey);
+            out.writeInt(d.titles.size());
+            for (var t : d.titles.entrySet()) {
+                writeUuid(out, t.getKey());
+                out.writeUTF(t.getValue());
+            }
+        }
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        docs.clear();
+        byOrdinal.clear();
+        postings.clear();
+
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            var d = new Doc(i, readUuid(in));
+            d.lastName = in.readUTF();
+            d.firstKey = in.readUTF();
+            d.lastKey = in.readUTF();
+            int titles = in.readInt();
+            for (int j = 0; j < titles; j++) {
+                d.titles.put(readUuid(in), in.readUTF());
+            }
+            docs.put(d.id, d);
+            byOrdinal.add(d);
+        }
+    }
+
+    static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private void unpost(Doc d, Set<Long> trigrams) {
+        for (long t : trigrams) {
+            var list = postings.get(t);
+            if (list != null && list.remove(d.ordinal) && list.size == 0) {
+                postings.remove(t);
+            }
+        }
+    }
+
+    private Iterable<Doc> candidates(String key) {
+        if (key.length() < 3) {
+            return () -> byOrdinal.stream().filter(Objects::nonNull).iterator();
+        }
+
+        var lists = new ArrayList<Postings>();
+        for (long t : trigramsOf(key, new HashSet<>())) {
+            var list = postings.get(t);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+
+        var smallest = lists.get(0);
+        var result = new ArrayList<Doc>();
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int ord = smallest.values[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(ord)) {
+                    continue outer;
+                }
+            }
+            result.add(byOrdinal.get(ord));
+        }
+        return result;
+    }
+
+    static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<Long> trigramsOf(String s, Set<Long> out) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            out.add(((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2));
+        }
+        return out;
+    }
+
+    private static final class Doc {
+        final int ordinal;
+        final UUID id;
+        String lastName;
+        String firstKey = "";
+        String lastKey = "";
+        final Map<UUID, String> titles = new HashMap<>(4);
+
+        Doc(int ordinal, UUID id) {
+            this.ordinal = ordinal;
+            this.id = id;
+        }
+
+        void setNames(String firstName, String lastName) {
+            this.lastName = lastName;
+            this.firstKey = normalize(firstName);
+            this.lastKey = normalize(lastName);
+        }
+
+        boolean matches(String key) {
+            if (firstKey.contains(key) || lastKey.contains(key)) {
+                return true;
+            }
+            for (var t : titles.values()) {
+                if (t.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Set<Long> trigrams() {
+            var out = new HashSet<Long>();
+            trigramsOf(firstKey, out);
+            trigramsOf(lastKey, out);
+            for (var t : titles.values()) {
+                trigramsOf(t, out);
+            }
+            return out;
+        }
+    }
+
+    // sorted int set: person ordinals containing a given trigram
+    private static final class Postings {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == 0 || values[size - 1] < v) {
+                ensureCapacity();
+                values[size++] = v;
+                return;
+            }
+            int i = Arrays.binarySearch(values, 0, size, v);
+            if (i >= 0) {
+                return;
+            }
+            int at = -i - 1;
+            ensureCapacity();
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = v;
+            size++;
+        }
+
+        boolean remove(int v) {
+            int i = Arrays.binarySearch(values, 0, size, v);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int v) {
+            return Arrays.binarySearch(values, 0, size, v) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
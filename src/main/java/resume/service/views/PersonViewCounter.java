@@ -0,0 +1,210 @@
+package resume.service.views;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import resume.repository.PersonRepository;
+import resume.service.AfterCommit;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind CV view counts. {@link #record} only bumps a per-person {@link LongAdder}
+ * (striped, no lock, no database access); every {@code app.views.flush-interval}, and on shutdown,
+ * the pending counts are added to {@code persons.view_count} with batched UPDATEs. After each flush
+ * the {@code app.views.top-size} most viewed persons are picked with a min-heap and published as an
+ * immutable list, so {@link #top} is a volatile read that lags the live counts by one interval.
+ */
+@Component
+public class PersonViewCounter implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(PersonViewCounter.class);
+
+    static final String UPDATE = "update \"persons\" set \"view_count\" = \"view_count\" + ? where \"id\" = ?";
+
+    // fewer views first, then the larger id: the head of the min-heap is the next one to evict
+    private static final Comparator<Ranked> BY_VIEWS = Comparator.comparingLong(Ranked::views)
+            .thenComparing(Ranked::id, Comparator.reverseOrder());
+
+    private final PersonRepository personRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Duration flushInterval;
+    private final int topSize;
+    private final int batchSize;
+
+    private final Map<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+    // flushed totals of the persons viewed at least once; guarded by this
+    private final Map<UUID, Long> totals = new HashMap<>();
+
+    private volatile List<Ranked> top = List.of();
+    private volatile boolean ready;
+    private ScheduledExecutorService flusher;
+
+    public record Ranked(UUID id, long views) {}
+
+    public PersonViewCounter(PersonRepository personRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.views.flush-interval:10s}") Duration flushInterval,
+                             @Value("${app.views.top-size:100}") int topSize,
+                             @Value("${app.views.batch-size:500}") int batchSize) {
+        this.personRepository = personRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.flushInterval = flushInterval;
+        this.topSize = topSize;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        synchronized (this) {
+            totals.clear();
+            for (var v : personRepository.findViewCounts()) {
+                totals.put(v.getId(), v.getViewCount());
+            }
+            rank();
+            ready = true;
+            logger.info("View counts loaded: " + totals.size() + " persons viewed");
+        }
+
+        // 0 = no background flush (tests call flush() themselves)
+        if (!flushInterval.isZero() && flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                var t = new Thread(r, "view-count-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            long ms = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, ms, ms, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // hot path: callers must only pass ids of persons that exist
+    public void record(UUID personId) {
+        var adder = pending.get(personId);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(personId, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    // the `limit` most viewed persons as of the last flush, most viewed first
+    public List<Ranked> top(int limit) {
+        var t = top;
+        return t.size() <= limit ? t : t.subList(0, limit);
+    }
+
+    // adds the pending counts to the table; returns the number of persons written
+    public synchronized int flush() {
+        var deltas = new ArrayList<Delta>();
+        for (var e : pending.entrySet()) {
+            long n = e.getValue().sumThenReset();
+            if (n > 0) {
+                deltas.add(new Delta(e.getKey(), n));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        int[][] updated;
+        try {
+            updated = transaction.execute(s -> jdbcTemplate.batchUpdate(UPDATE, deltas, batchSize, (ps, d) -> {
+                ps.setLong(1, d.n());
+                ps.setObject(2, d.id());
+            }));
+        } catch (RuntimeException e) {
+            // rolled back: keep the counts for the next flush
+            for (var d : deltas) {
+                pending.computeIfAbsent(d.id(), k -> new LongAdder()).add(d.n());
+            }
+            throw e;
+        }
+
+        int i = 0;
+        for (var chunk : updated) {
+            for (int rows : chunk) {
+                var d = deltas.get(i++);
+                if (rows == 0) {
+                    // deleted in the meantime
+                    pending.remove(d.id());
+                    totals.remove(d.id());
+                } else {
+                    totals.merge(d.id(), d.n(), Long::sum);
+                }
+            }
+        }
+        rank();
+        return deltas.size();
+    }
+
+    public void removePerson(UUID personId) {
+        if (personId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            pending.remove(personId);
+            synchronized (this) {
+                if (totals.remove(personId) != null) {
+                    rank();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (ready) {
+            flushQuietly();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("View count flush failed", e);
+        }
+    }
+
+    // top-K of the totals with a bounded min-heap: O(n log K) per flush
+    private void rank() {
+        var heap = new PriorityQueue<Ranked>(topSize + 1, BY_VIEWS);
+        for (var e : totals.entrySet()) {
+            var r = new Ranked(e.getKey(), e.getValue());
+            if (heap.size() < topSize) {
+                heap.add(r);
+            } else if (BY_VIEWS.compare(r, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(r);
+            }
+        }
+        var ranked = new ArrayList<>(heap);
+        ranked.sort(BY_VIEWS.reversed());
+        top = List.copyOf(ranked);
+    }
+
+    private record Delta(UUID id, long n) {}
+}
@@ -1,21 +1,44 @@
 package resume.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import resume.model.ActivityType;
 import resume.service.ActivityService;
+import resume.service.CountMode;
 import resume.web.dto.activity.ActivityCreateRequestDto;
+import resume.web.dto.activity.ActivityDescriptionDto;
+import resume.web.dto.activity.ActivityFacetResponseDto;
+import resume.web.dto.activity.ActivityImportResponseDto;
 import resume.web.dto.activity.ActivityResponseDto;
+import resume.web.dto.page.CursorPageDto;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequiredArgsConstructor
 public class ActivityController {
 
+    static final int MAX_RECENT_PERSONS = 100;
+    static final int MAX_RECENT_LIMIT = 10;
+
     private final ActivityService activityService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
 
     @PostMapping("/api/persons/{personId}/activities")
@@ -37,40 +60,122 @@ public class ActivityController {
     }
 
 
+    @PostMapping(
+            value = "/api/persons/{personId}/activities:batch",
+            consumes = {"application/json", "application/x-ndjson"}
+    )
+    public ActivityImportResponseDto addBatch(
+            @PathVariable UUID personId,
+            @RequestAttribute("authPersonId") UUID authId,
+            HttpServletRequest request
+    ) throws IOException {
+        try (var body = request.getReader()) {
+            var rows = new ActivityImportReader(objectMapper, validator, body);
+            return new ActivityImportResponseDto(activityService.importActivities(personId, authId, rows));
+        }
+    }
+
+
     @GetMapping("/api/persons/{personId}/activities")
-    public Page<ActivityResponseDto> list(
+    public Slice<ActivityResponseDto> list(
             @PathVariable UUID personId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(defaultValue = "false") boolean approxTotal,
+            @RequestParam(defaultValue = Fields.FULL) String fields
     ) {
-        return activityService.listActivities(personId, page, size)
-                .map(a -> new ActivityResponseDto(
+        return activityService.listActivityDtos(personId, page, size,
+                CountMode.of(withTotal, approxTotal), Fields.summary(fields));
+    }
+
+
+    @GetMapping(value = "/api/persons/{personId}/activities", params = "cursor")
+    public CursorPageDto<ActivityResponseDto> listByCursor(
+            @PathVariable UUID personId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        Paging.checkSize(size);
+        Integer year = null;
+        UUID afterId = null;
+        if (!cursor.isEmpty()) {
+            var parts = Cursors.decode(cursor, 2);
+            year = Cursors.integer(parts[0]);
+            afterId = Cursors.uuid(parts[1]);
+        }
+
+        var rows = activityService.listActivitiesAfter(personId, year, afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        var content = hasNext ? rows.subList(0, size) : rows;
+
+        String next = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            next = Cursors.encode(last.getYear(), last.getId());
+        }
+
+        return new CursorPageDto<>(
+                content.stream()
+                        .map(a -> new ActivityResponseDto(
+                                a.getId(),
+                                a.getYear(),
+                                a.getType(),
+                                a.getTitle(),
+                                a.getDescription(),
+                                a.getUrl()
+                        )).toList(),
+                next,
+                hasNext,
+                withTotal ? activityService.countActivities(personId) : null
+        );
+    }
+
+
+    // If-Match: "<version>" makes the edit conditional (412 when someone else saved first)
+    @PutMapping("/api/activities/{activityId}")
+    public ResponseEntity<ActivityResponseDto> update(
+            @PathVariable UUID activityId,
+            @RequestAttribute("authPersonId") UUID authId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ActivityCreateRequestDto dto
+    ) {
+        var a = activityService.updateActivity(activityId, authId, dto, Versions.expected(ifMatch));
+
+        return ResponseEntity.ok()
+                .eTag(Versions.etag(a.getVersion()))
+                .body(new ActivityResponseDto(
                         a.getId(),
                         a.getYear(),
                         a.getType(),
                         a.getTitle(),
                         a.getDescription(),
-                        a.getUrl()
+                        a.getUrl(),
+                        a.getVersion()
                 ));
     }
 
 
-    @PutMapping("/api/activities/{activityId}")
-    public ActivityResponseDto update(
-            @PathVariable UUID activityId,
-            @RequestAttribute("authPersonId") UUID authId,
-            @Valid @RequestBody ActivityCreateRequestDto dto
+    // browse cards: ?personIds=a,b,c&limit=3 -> { personId: [latest activities] }, one query for the whole page
+    @GetMapping("/api/activities/recent")
+    public Map<UUID, List<ActivityResponseDto>> recent(
+            @RequestParam List<UUID> personIds,
+            @RequestParam(defaultValue = "3") int limit
     ) {
-        var a = activityService.updateActivity(activityId, authId, dto);
+        if (personIds.size() > MAX_RECENT_PERSONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + MAX_RECENT_PERSONS + " personIds");
+        }
+        if (limit < 1 || limit > MAX_RECENT_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_RECENT_LIMIT);
+        }
+        return activityService.recentByPersons(personIds, limit);
+    }
 
-        return new ActivityResponseDto(
-                a.getId(),
-                a.getYear(),
-                a.getType(),
-                a.getTitle(),
-                a.getDescription(),
-                a.getUrl()
-        );
+
+    @GetMapping("/api/activities/{activityId}/description")
+    public ActivityDescriptionDto description(@PathVariable UUID activityId) {
+        return activityService.getDescription(activityId);
     }
 
 
@@ -86,15 +191,65 @@ public class ActivityController {
     }
 
     @GetMapping("/api/activities/search")
-    public Page<ActivityResponseDto> search(
+    public Slice<ActivityResponseDto> search(
             @RequestParam String q,
             @RequestParam(defaultValue="0") int page,
-            @RequestParam(defaultValue="10") int size
+            @RequestParam(defaultValue="10") int size,
+            @RequestParam(defaultValue="true") boolean withTotal,
+            @RequestParam(defaultValue="false") boolean approxTotal,
+            @RequestParam(defaultValue = Fields.FULL) String fields,
+            @RequestParam(defaultValue = Match.CONTAINS) String match
     ) {
-        return activityService.searchByTitle(q, page, size)
+        var mode = CountMode.of(withTotal, approxTotal);
+        return Match.prefix(match)
+                ? activityService.searchActivityDtosByTitlePrefix(q, page, size, mode, Fields.summary(fields))
+                : activityService.searchActivityDtosByTitle(q, page, size, mode, Fields.summary(fields));
+    }
+
+    @GetMapping("/api/activities/fulltext")
+    public Page<ActivityResponseDto> fullText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Paging.check(page, size);
+        return activityService.fullTextSearch(q, page, size)
                 .map(a -> new ActivityResponseDto(
                         a.getId(), a.getYear(), a.getType(),
                         a.getTitle(), a.getDescription(), a.getUrl()
                 ));
     }
+
+    // page + per-type and per-year-bucket counts in one call, e.g. ?type=PROJECT&fromYear=2018&toYear=2022&q=java
+    @GetMapping("/api/activities/facets")
+    public ActivityFacetResponseDto facets(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(name = "type", required = false) Set<ActivityType> types,
+            @RequestParam(required = false) Integer fromYear,
+            @RequestParam(required = false) Integer toYear,
+            @RequestParam(defaultValue = "1") int yearBucket,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        // before the index walk: size=0 would collect every matching id
+        Paging.check(page, size);
+        if (fromYear != null && toYear != null && fromYear > toYear) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromYear must not be after toYear");
+        }
+
+        var result = activityService.facetSearch(q, types, fromYear, toYear, yearBucket, page, size);
+
+        return new ActivityFacetResponseDto(
+                result.page().getContent().stream()
+                        .map(a -> new ActivityResponseDto(
+                                a.getId(), a.getYear(), a.getType(),
+                                a.getTitle(), a.getDescription(), a.getUrl()
+                        )).toList(),
+                page,
+                size,
+                result.page().getTotalElements(),
+                result.types(),
+                result.years()
+        );
+    }
 }
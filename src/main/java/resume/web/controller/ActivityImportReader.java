@@ -0,0 +1,64 @@
+package resume.web.controller;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import resume.web.dto.activity.ActivityCreateRequestDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+
+// streams a JSON array or NDJSON body one activity at a time, validating each row as it is read
+final class ActivityImportReader implements Iterator<ActivityCreateRequestDto> {
+
+    private final MappingIterator<ActivityCreateRequestDto> values;
+    private final Validator validator;
+    private int index;
+
+    ActivityImportReader(ObjectMapper mapper, Validator validator, Reader body) throws IOException {
+        this.values = mapper.readerFor(ActivityCreateRequestDto.class).readValues(body);
+        this.validator = validator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return values.hasNextValue();
+        } catch (IOException e) {
+            throw invalid("malformed JSON");
+        }
+    }
+
+    @Override
+    public ActivityCreateRequestDto next() {
+        ActivityCreateRequestDto dto;
+        try {
+            // a null element ("[{...}, null]") or a bare null NDJSON line is a row, just not an activity
+            if (values.hasNextValue() && values.getParser().currentToken() == JsonToken.VALUE_NULL) {
+                throw invalid("must be an object");
+            }
+            dto = values.nextValue();
+        } catch (IOException e) {
+            throw invalid("malformed JSON");
+        }
+
+        var violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw invalid(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        index++;
+        return dto;
+    }
+
+    private ResponseStatusException invalid(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Activity #" + (index + 1) + ": " + reason);
+    }
+}
@@ -0,0 +1,56 @@
+package resume.web.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.server.ResponseStatusException;
+import resume.service.exceptions.PreconditionFailedException;
+import resume.service.exceptions.ServiceUnavailableException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private final long retryAfterSeconds;
+
+    public ApiExceptionHandler(@Value("${app.password.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> unavailable(ServiceUnavailableException e) {
+        return unavailable(e.getMessage(), e.getRetryAfterSeconds());
+    }
+
+    // stale If-Match on PUT: the client must re-read the resource before editing it again
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> preconditionFailed(PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    // bad parameters and rejected import rows: answered here, since the /error dispatch runs
+    // without the JWT filter and would turn them into 403s
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> status(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", e.getReason() != null ? e.getReason() : e.getStatusCode().toString()));
+    }
+
+    // an async request (login) that waited too long in the hashing queue
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<Map<String, String>> asyncTimeout(AsyncRequestTimeoutException e) {
+        return unavailable("Request timed out", retryAfterSeconds);
+    }
+
+    private static ResponseEntity<Map<String, String>> unavailable(String message, long retryAfter) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(Map.of("error", message));
+    }
+}
@@ -4,31 +4,41 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import resume.repository.PersonRepository;
+import resume.service.cache.CredentialCache;
+import resume.web.security.BoundedPasswordHasher;
 import resume.web.security.JwtService;
-import resume.web.security.PasswordHasher;
 import resume.service.exceptions.ForbiddenException;
 import resume.web.dto.auth.LoginRequestDto;
 import resume.web.dto.auth.LoginResponseDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final PersonRepository personRepository;
-    private final PasswordHasher passwordHasher;
+    private final CredentialCache credentialCache;
+    private final BoundedPasswordHasher passwordHasher;
     private final JwtService jwtService;
 
+    // BCrypt runs on the hashing pool; the request thread is released while it works
     @PostMapping("/login")
-    public LoginResponseDto login(@Valid @RequestBody LoginRequestDto req) {
-        var p = personRepository.findByEmail(req.email())
+    public CompletableFuture<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto req) {
+        var c = credentialCache.get(req.email(), personRepository::findCredentialsByEmail)
                 .orElseThrow(() -> new ForbiddenException("Bad credentials"));
 
-        if (!passwordHasher.matches(req.password(), p.getPasswordHash())) {
-            throw new ForbiddenException("Bad credentials");
-        }
-
-        var token = jwtService.generateToken(p.getId(), p.getEmail());
-        return new LoginResponseDto(token);
+        return passwordHasher.verifyAsync(req.password(), c.passwordHash())
+                .thenApply(v -> {
+                    if (!v.matches()) {
+                        throw new ForbiddenException("Bad credentials");
+                    }
+                    if (v.upgradedHash() != null) {
+                        personRepository.updatePasswordHash(c.id(), v.upgradedHash());
+                        credentialCache.invalidate(c.email());
+                    }
+                    return new LoginResponseDto(jwtService.generateToken(c.id(), c.email()));
+                });
     }
 }
@@ -0,0 +1,62 @@
+package resume.web.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// opaque continuation tokens: base64url of the keyset values of the last row returned
+final class Cursors {
+
+    private static final String SEP = "\u001f";
+
+    private Cursors() {
+    }
+
+    static String encode(Object... parts) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEP);
+            }
+            sb.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split(SEP, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("wrong cursor arity");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    static UUID uuid(String part) {
+        try {
+            return UUID.fromString(part);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    static int integer(String part) {
+        try {
+            return Integer.parseInt(part);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
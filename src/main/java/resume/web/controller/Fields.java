@@ -0,0 +1,24 @@
+package resume.web.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// "fields" request parameter: full (default) or summary (activity descriptions left out)
+final class Fields {
+
+    static final String FULL = "full";
+    static final String SUMMARY = "summary";
+
+    private Fields() {
+    }
+
+    static boolean summary(String fields) {
+        if (fields == null || fields.isEmpty() || FULL.equalsIgnoreCase(fields)) {
+            return false;
+        }
+        if (SUMMARY.equalsIgnoreCase(fields)) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields must be 'full' or 'summary'");
+    }
+}
@@ -0,0 +1,24 @@
+package resume.web.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// "match" request parameter of the search endpoints: contains (default) or prefix (indexed search keys)
+final class Match {
+
+    static final String CONTAINS = "contains";
+    static final String PREFIX = "prefix";
+
+    private Match() {
+    }
+
+    static boolean prefix(String match) {
+        if (match == null || match.isEmpty() || CONTAINS.equalsIgnoreCase(match)) {
+            return false;
+        }
+        if (PREFIX.equalsIgnoreCase(match)) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "match must be 'contains' or 'prefix'");
+    }
+}
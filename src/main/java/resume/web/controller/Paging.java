@@ -0,0 +1,26 @@
+package resume.web.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// "page" / "size" request parameters, checked before any query or index walk runs
+final class Paging {
+
+    static final int MAX_SIZE = 100;
+
+    private Paging() {
+    }
+
+    static void check(int page, int size) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must not be negative");
+        }
+        checkSize(size);
+    }
+
+    static void checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_SIZE);
+        }
+    }
+}
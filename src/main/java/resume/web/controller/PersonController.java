@@ -1,19 +1,40 @@
 package resume.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import resume.model.Activity;
 import resume.model.Person;
+import resume.service.CountMode;
+import resume.service.ExportService;
 import resume.service.PersonService;
+import resume.service.cache.CvCache;
+import resume.service.views.PersonViewCounter;
+import resume.web.security.PasswordHasher;
 
 import resume.web.dto.activity.ActivityResponseDto;
+import resume.web.dto.page.CursorPageDto;
 import resume.web.dto.person.PersonCreateRequestDto;
 import resume.web.dto.person.PersonResponseDto;
+import resume.web.dto.person.PersonSuggestionDto;
 import resume.web.dto.person.PersonUpdateRequestDto;
+import resume.web.dto.person.PersonViewsDto;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -21,33 +42,96 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PersonController {
 
+    static final int MAX_SUGGESTIONS = 20;
+    static final int MAX_MOST_VIEWED = 100;
+
     private final PersonService personService;
+    private final ExportService exportService;
+    private final CvCache cvCache;
+    private final PersonViewCounter viewCounter;
+    private final PasswordHasher passwordHasher;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public PersonResponseDto create(
             @Valid @RequestBody PersonCreateRequestDto dto,
             @RequestAttribute(name = "authPersonId") UUID authId
     ) {
-        Person p = personService.createPerson(dto, authId);
+        // hashed here, before createPerson opens its transaction (see BoundedPasswordHasher)
+        var passwordHash = passwordHasher.hash(dto.rawPassword());
+        Person p = personService.createPerson(dto, passwordHash, authId);
         return toDto(p, true);
     }
 
 
+    // ResponseEntity + ETag: Spring answers 304 itself when If-None-Match matches.
+    // Full CVs are written from the bytes kept in CvCache (gzip when the client accepts it);
+    // without them the DTO goes through Jackson as usual. Tags hash the JSON bytes. Each read counts as a view, in memory only.
     @GetMapping("/{id}")
-    public PersonResponseDto get(@PathVariable UUID id) {
-        var p = personService.getPersonWithActivities(id);
-        return toDto(p, true);
+    public ResponseEntity<?> get(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = Fields.FULL) String fields,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        if (Fields.summary(fields)) {
+            var body = personService.getPersonSummary(id);
+            viewCounter.record(id);
+            return ResponseEntity.ok()
+                    .eTag(cvCache.etagOf(body))
+                    .cacheControl(CacheControl.noCache())
+                    .body(body);
+        }
+
+        var cv = cvCache.get(id, () -> toDto(personService.getPersonWithActivities(id), true));
+        viewCounter.record(id);
+
+        var ok = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        var encoded = cv.encoded();
+        if (encoded == null) {
+            return ok.eTag(cv.etag()).body(cv.body());
+        }
+
+        ok.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (encoded.gzip() != null && acceptsGzip(acceptEncoding)) {
+            // the compressed representation gets its own tag
+            return ok.eTag(cv.etag().replaceFirst("\"$", "-gz\""))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.gzip());
+        }
+        return ok.eTag(cv.etag()).body(encoded.json());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            var params = part.split(";");
+            if (!params[0].trim().equals("gzip")) {
+                continue;
+            }
+            // "gzip;q=0" means the client refuses it
+            return params.length < 2 || !params[1].trim().matches("q=0(\\.0*)?");
+        }
+        return false;
     }
 
 
+    // If-Match: the ETag of a GET (full or summary) or of a previous PUT makes the edit conditional
+    // on the person's version (412 when someone else saved first)
     @PutMapping("/{id}")
-    public PersonResponseDto updatePerson(
+    public ResponseEntity<PersonResponseDto> updatePerson(
             @PathVariable UUID id,
             @RequestAttribute("authPersonId") UUID authId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PersonUpdateRequestDto dto
     ) {
-        var updated = personService.updatePerson(id, authId, dto);
-        return toDto(updated, true);
+        var updated = personService.updatePerson(id, authId, dto, Versions.expected(ifMatch));
+        var body = toDto(updated, true);
+        // same tag as the next GET of the full CV
+        return ResponseEntity.ok()
+                .eTag(cvCache.etagOf(body))
+                .body(body);
     }
 
 
@@ -59,37 +143,132 @@ public class PersonController {
         personService.deletePerson(id, authId);
     }
 
+    // withStats: each row also carries activityCount, latestYear and a per-type histogram
     @GetMapping
-    public Page<PersonResponseDto> list(
+    public Slice<?> list(
             @RequestParam(defaultValue="0") int page,
-            @RequestParam(defaultValue="10") int size
+            @RequestParam(defaultValue="10") int size,
+            @RequestParam(defaultValue="true") boolean withTotal,
+            @RequestParam(defaultValue="false") boolean approxTotal,
+            @RequestParam(defaultValue="false") boolean withStats
     ) {
-        return personService.listPersons(page, size)
-                .map(p -> toDto(p, false));
+        var mode = CountMode.of(withTotal, approxTotal);
+        return withStats
+                ? personService.listPersonStats(page, size, mode)
+                : personService.listPersonDtos(page, size, mode);
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPageDto<PersonResponseDto> listByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue="10") int size,
+            @RequestParam(defaultValue="false") boolean withTotal
+    ) {
+        Paging.checkSize(size);
+        String lastName = null;
+        UUID afterId = null;
+        if (!cursor.isEmpty()) {
+            var parts = Cursors.decode(cursor, 2);
+            lastName = parts[0];
+            afterId = Cursors.uuid(parts[1]);
+        }
+
+        var rows = personService.listPersonsAfter(lastName, afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        var content = hasNext ? rows.subList(0, size) : rows;
+
+        String next = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            next = Cursors.encode(last.getLastName(), last.getId());
+        }
+
+        return new CursorPageDto<>(
+                content.stream().map(p -> toDto(p, false)).toList(),
+                next,
+                hasNext,
+                withTotal ? personService.countPersons() : null
+        );
     }
 
     @GetMapping("/search")
-    public Page<PersonResponseDto> search(
+    public Slice<?> search(
             @RequestParam String q,
             @RequestParam(defaultValue="0") int page,
-            @RequestParam(defaultValue="10") int size
+            @RequestParam(defaultValue="10") int size,
+            @RequestParam(defaultValue="true") boolean withTotal,
+            @RequestParam(defaultValue="false") boolean approxTotal,
+            @RequestParam(defaultValue="false") boolean withStats,
+            @RequestParam(defaultValue=Match.CONTAINS) String match
     ) {
-        return personService.searchPersons(q, page, size)
-                .map(p -> toDto(p, false));
+        var mode = CountMode.of(withTotal, approxTotal);
+        boolean prefix = Match.prefix(match);
+        if (withStats) {
+            return personService.searchPersonStats(q, page, size, mode, prefix);
+        }
+        return prefix
+                ? personService.searchPersonDtosByPrefix(q, page, size, mode)
+                : personService.searchPersonDtos(q, page, size, mode);
+    }
+
+    // search-box autocomplete: prefix of "first last" or "last first", accents and case ignored
+    @GetMapping("/suggest")
+    public List<PersonSuggestionDto> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return personService.suggestNames(q, limit);
+    }
+
+    // popularity ranking, refreshed by each view-count flush
+    @GetMapping("/most-viewed")
+    public List<PersonViewsDto> mostViewed(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_MOST_VIEWED) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_MOST_VIEWED);
+        }
+        return personService.mostViewed(limit);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        var out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        try {
+            exportService.exportPersons((p, activities) -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(toDto(p, activities)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
     }
 
     private PersonResponseDto toDto(Person p, boolean withActivities) {
-        List<ActivityResponseDto> acts = withActivities
-                ? p.getActivities().stream()
+        return toDto(p, withActivities ? p.getActivities() : List.of());
+    }
+
+    // versions included: the CV (and its ETag) is what an edit starts from
+    private PersonResponseDto toDto(Person p, List<Activity> activities) {
+        List<ActivityResponseDto> acts = activities.stream()
                 .map(a -> new ActivityResponseDto(
                         a.getId(),
                         a.getYear(),
                         a.getType(),
                         a.getTitle(),
                         a.getDescription(),
-                        a.getUrl()
-                )).toList()
-                : List.of();
+                        a.getUrl(),
+                        a.getVersion()
+                )).toList();
 
         return new PersonResponseDto(
                 p.getId(),
@@ -98,7 +277,8 @@ public class PersonController {
                 p.getEmail(),
                 p.getWebsite(),
                 p.getBirthDate(),
-                acts
+                acts,
+                p.getVersion()
         );
     }
 }
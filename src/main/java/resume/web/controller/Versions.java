@@ -0,0 +1,32 @@
+package resume.web.controller;
+
+import resume.service.exceptions.PreconditionFailedException;
+
+import java.util.regex.Pattern;
+
+// entity versions as strong ETags: "3" for activities, "3.<content hash>" for CVs (see CvCache.etagOf).
+// Either form is accepted back in If-Match; only the version part is compared.
+final class Versions {
+
+    private static final Pattern TAG = Pattern.compile("\"(\\d{1,18})(\\.[^\"]*)?\"");
+
+    private Versions() {
+    }
+
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // null when there is no If-Match (or "*"): the update does not check the version
+    static Long expected(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var m = TAG.matcher(ifMatch.trim());
+        if (m.matches()) {
+            return Long.parseLong(m.group(1));
+        }
+        // weak tags, lists and tags without a version never match
+        throw new PreconditionFailedException("If-Match must be an ETag returned by a read or PUT of this resource");
+    }
+}
@@ -0,0 +1,8 @@
+package resume.web.dto.activity;
+
+import java.util.UUID;
+
+public record ActivityDescriptionDto(
+        UUID id,
+        String description
+) {}
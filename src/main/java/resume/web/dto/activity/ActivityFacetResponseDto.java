@@ -0,0 +1,15 @@
+package resume.web.dto.activity;
+
+import resume.model.ActivityType;
+
+import java.util.List;
+import java.util.Map;
+
+public record ActivityFacetResponseDto(
+        List<ActivityResponseDto> content,
+        int page,
+        int size,
+        long totalElements,
+        Map<ActivityType, Long> types,
+        Map<Integer, Long> years
+) {}
@@ -0,0 +1,3 @@
+package resume.web.dto.activity;
+
+public record ActivityImportResponseDto(int imported) {}
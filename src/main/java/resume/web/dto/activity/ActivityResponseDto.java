@@ -1,5 +1,6 @@
 package resume.web.dto.activity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import resume.model.ActivityType;
 import java.util.UUID;
 
@@ -9,5 +10,22 @@ public record ActivityResponseDto(
         ActivityType type,
         String title,
         String description,
-        String url
-) {}
+        String url,
+        // only on the rows an edit can start from (CVs, a person's activity list); sent back as If-Match
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version
+) {
+
+    public ActivityResponseDto(UUID id, int year, ActivityType type, String title, String description, String url) {
+        this(id, year, type, title, description, url, null);
+    }
+
+    // summary rows (fields=summary): description left out, see GET /api/activities/{id}/description
+    public ActivityResponseDto(UUID id, int year, ActivityType type, String title, String url) {
+        this(id, year, type, title, null, url, null);
+    }
+
+    public ActivityResponseDto(UUID id, int year, ActivityType type, String title, String url, Long version) {
+        this(id, year, type, title, null, url, version);
+    }
+}
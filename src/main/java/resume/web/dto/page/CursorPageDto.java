@@ -0,0 +1,10 @@
+package resume.web.dto.page;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        Long totalElements
+) {}
@@ -1,5 +1,6 @@
 package resume.web.dto.person;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import resume.web.dto.activity.ActivityResponseDto;
 
 import java.time.LocalDate;
@@ -13,5 +14,24 @@ public record PersonResponseDto(
         String email,
         String website,
         LocalDate birthDate,
-        List<ActivityResponseDto> activities
-) {}
+        List<ActivityResponseDto> activities,
+        // only where an edit can start from (full and summary CV, PUT); its ETag is sent back as If-Match
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version
+) {
+
+    public PersonResponseDto(UUID id, String firstName, String lastName, String email, String website, LocalDate birthDate,
+                             List<ActivityResponseDto> activities) {
+        this(id, firstName, lastName, email, website, birthDate, activities, null);
+    }
+
+    // list rows (JPQL constructor expressions): no activities
+    public PersonResponseDto(UUID id, String firstName, String lastName, String email, String website, LocalDate birthDate) {
+        this(id, firstName, lastName, email, website, birthDate, List.of(), null);
+    }
+
+    public PersonResponseDto(UUID id, String firstName, String lastName, String email, String website, LocalDate birthDate,
+                             Long version) {
+        this(id, firstName, lastName, email, website, birthDate, List.of(), version);
+    }
+}
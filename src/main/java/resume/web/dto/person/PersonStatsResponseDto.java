@@ -0,0 +1,20 @@
+package resume.web.dto.person;
+
+import resume.model.ActivityType;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+// list row with activity aggregates; latestYear is null when the person has no activity
+public record PersonStatsResponseDto(
+        UUID id,
+        String firstName,
+        String lastName,
+        String email,
+        String website,
+        LocalDate birthDate,
+        long activityCount,
+        Integer latestYear,
+        Map<ActivityType, Long> types
+) {}
@@ -0,0 +1,9 @@
+package resume.web.dto.person;
+
+import java.util.UUID;
+
+public record PersonSuggestionDto(
+        UUID id,
+        String firstName,
+        String lastName
+) {}
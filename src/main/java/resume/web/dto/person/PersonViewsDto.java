@@ -0,0 +1,10 @@
+package resume.web.dto.person;
+
+import java.util.UUID;
+
+public record PersonViewsDto(
+        UUID id,
+        String firstName,
+        String lastName,
+        long views
+) {}
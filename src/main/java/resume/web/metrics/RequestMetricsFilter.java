@@ -0,0 +1,92 @@
+package resume.web.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// records how many SQL statements each request ran, tagged like http.server.requests;
+// latency histograms come from Spring MVC's own http.server.requests timer
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public RequestMetricsFilter(SqlStatementCounter counter,
+                                MeterRegistry registry,
+                                @Value("${app.metrics.sql-warn-threshold:20}") int warnThreshold) {
+        this.counter = counter;
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        var count = counter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // CompletableFuture endpoints: statements can still run after this dispatch returns
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, count.get());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, count.get());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, int statements) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(registry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            logger.warn(request.getMethod() + " " + uri + " ran " + statements + " SQL statements");
+        }
+    }
+}
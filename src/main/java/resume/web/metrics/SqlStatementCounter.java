@@ -0,0 +1,55 @@
+package resume.web.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// counts the SQL statements Hibernate prepares for the current request. The count is bound to the
+// request thread; as a TaskDecorator it follows the tasks that thread hands to an executor (e.g. the
+// login's hashing pool), so statements run there are added to the same request.
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer, TaskDecorator {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    // a fresh count for the request starting on this thread; read it once the request is complete
+    public AtomicInteger start() {
+        var count = new AtomicInteger();
+        COUNT.set(count);
+        return count;
+    }
+
+    public int current() {
+        return COUNT.get().get();
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        var count = COUNT.get();
+        return () -> {
+            var previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
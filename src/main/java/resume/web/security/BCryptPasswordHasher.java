@@ -1,12 +1,23 @@
 package resume.web.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.regex.Pattern;
+
 @Service
 public class BCryptPasswordHasher implements PasswordHasher {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$.*");
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+
+    public BCryptPasswordHasher(@Value("${app.password.bcrypt-strength:10}") int strength) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+    }
 
     @Override
     public String hash(String raw) {
@@ -17,4 +28,10 @@ public class BCryptPasswordHasher implements PasswordHasher {
     public boolean matches(String raw, String hash) {
         return encoder.matches(raw, hash);
     }
+
+    @Override
+    public boolean needsRehash(String hash) {
+        var m = BCRYPT.matcher(hash == null ? "" : hash);
+        return !m.matches() || Integer.parseInt(m.group(1)) != strength;
+    }
 }
@@ -0,0 +1,120 @@
+package resume.web.security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import resume.service.exceptions.ServiceUnavailableException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Runs BCrypt on a dedicated pool with a bounded queue. When the queue is full the caller
+// gets a ServiceUnavailableException (503 + Retry-After) instead of tying up a request thread.
+@Primary
+@Component
+public class BoundedPasswordHasher implements PasswordHasher, DisposableBean {
+
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    private final PasswordHasher delegate;
+    private final ThreadPoolExecutor pool;
+    private final TaskDecorator taskDecorator;
+    private final long retryAfterSeconds;
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordHasher(BCryptPasswordHasher delegate, int threads, int queueCapacity, long retryAfterSeconds) {
+        this(delegate, threads, queueCapacity, retryAfterSeconds, task -> task);
+    }
+
+    // taskDecorator carries the request's thread-bound state (the SQL statement count) onto the pool
+    @Autowired
+    public BoundedPasswordHasher(BCryptPasswordHasher delegate,
+                                 @Value("${app.password.threads:0}") int threads,
+                                 @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                 @Value("${app.password.retry-after-seconds:1}") long retryAfterSeconds,
+                                 TaskDecorator taskDecorator) {
+        this.delegate = delegate;
+        this.taskDecorator = taskDecorator;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    var t = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String hash(String raw) {
+        return await(submit(() -> delegate.hash(raw)));
+    }
+
+    @Override
+    public boolean matches(String raw, String hash) {
+        return await(submit(() -> delegate.matches(raw, hash)));
+    }
+
+    @Override
+    public boolean needsRehash(String hash) {
+        return delegate.needsRehash(hash);
+    }
+
+    // check + optional rehash at the configured cost, in a single pool task
+    public CompletableFuture<Verification> verifyAsync(String raw, String hash) {
+        return submit(() -> {
+            if (!delegate.matches(raw, hash)) {
+                return new Verification(false, null);
+            }
+            return new Verification(true, delegate.needsRehash(hash) ? delegate.hash(raw) : null);
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, r -> pool.execute(taskDecorator.decorate(r)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many password operations in progress", retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    public int queueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public int active() {
+        return pool.getActiveCount();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
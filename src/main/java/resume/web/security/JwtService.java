@@ -5,6 +5,7 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
 import java.util.UUID;
@@ -14,11 +15,18 @@ public class JwtService {
 
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
 
     public JwtService(@Value("${app.jwt.secret}") String secret,
-                      @Value("${app.jwt.expiration}") long expirationMs) {
+                      @Value("${app.jwt.expiration}") long expirationMs,
+                      @Value("${app.jwt.cache-size:10000}") int cacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser()
+                .verifyWith((SecretKey) key)
+                .build();
+        this.tokenCache = new VerifiedTokenCache(cacheSize);
     }
 
     public String generateToken(UUID personId, String email) {
@@ -35,12 +43,24 @@ public class JwtService {
     }
 
     public UUID validateAndGetPersonId(String token) {
-        var claims = Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) key)
-                .build()
+        long now = System.currentTimeMillis();
+        var cached = tokenCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        var claims = parser
                 .parseSignedClaims(token)
                 .getPayload();
 
-        return UUID.fromString(claims.getSubject());
+        var personId = UUID.fromString(claims.getSubject());
+        if (claims.getExpiration() != null) {
+            tokenCache.put(token, personId, claims.getExpiration().getTime());
+        }
+        return personId;
+    }
+
+    public VerifiedTokenCache getTokenCache() {
+        return tokenCache;
     }
 }
@@ -4,4 +4,9 @@ public interface PasswordHasher {
 
     String hash(String raw);
     boolean matches(String raw, String hash);
+
+    // true when the stored hash was produced with different parameters than the current ones
+    default boolean needsRehash(String hash) {
+        return false;
+    }
 }
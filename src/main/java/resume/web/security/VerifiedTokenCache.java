@@ -0,0 +1,89 @@
+package resume.web.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// token digest -> (personId, expiry) for tokens whose signature was already verified
+public class VerifiedTokenCache {
+
+    private record Entry(UUID personId, long expiresAtMs) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public UUID get(String token, long nowMs) {
+        var key = digest(token);
+        var e = entries.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (e.expiresAtMs() <= nowMs) {
+            entries.remove(key, e);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.personId();
+    }
+
+    public void put(String token, UUID personId, long expiresAtMs) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(System.currentTimeMillis());
+        }
+        entries.put(digest(token), new Entry(personId, expiresAtMs));
+    }
+
+    private void evict(long nowMs) {
+        // expired tokens first; if that is not enough, drop arbitrary entries down to 3/4 capacity
+        entries.values().removeIf(e -> e.expiresAtMs() <= nowMs);
+        var it = entries.keySet().iterator();
+        while (entries.size() > maxEntries * 3 / 4 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            var md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
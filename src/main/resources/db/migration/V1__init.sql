@@ -0,0 +1,28 @@
+-- Same schema as ddl-auto=create produces from the entities (globally quoted identifiers).
+
+create table "persons" (
+    "birth_date"    date,
+    "id"            uuid         not null,
+    "first_name"    varchar(100) not null,
+    "last_name"     varchar(100) not null,
+    "password_hash" varchar(100) not null,
+    "email"         varchar(255) not null,
+    "website"       varchar(255),
+    primary key ("id"),
+    constraint "idx_person_email" unique ("email")
+);
+
+create table "activities" (
+    "year"        integer      not null check (("year" >= 1900) and ("year" <= 3000)),
+    "id"          uuid         not null,
+    "person_id"   uuid         not null,
+    "title"       varchar(200) not null,
+    "url"         varchar(255),
+    "description" clob,
+    "type"        enum ('EDUCATION', 'EXPERIENCE', 'OTHER', 'PROJECT') not null,
+    primary key ("id"),
+    constraint "fk_activity_person" foreign key ("person_id") references "persons"
+);
+
+create index "idx_activity_person_year" on "activities" ("person_id", "year" desc);
+create index "idx_person_lastname_id" on "persons" ("last_name", "id");
@@ -0,0 +1,2 @@
+-- CV views, accumulated in memory and added in batches by PersonViewCounter
+alter table "persons" add column "view_count" bigint default 0 not null;
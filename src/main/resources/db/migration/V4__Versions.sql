@@ -0,0 +1,3 @@
+-- optimistic locking (@Version) for person and activity edits
+alter table "persons" add column "version" bigint default 0 not null;
+alter table "activities" add column "version" bigint default 0 not null;
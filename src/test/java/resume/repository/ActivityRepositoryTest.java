@@ -1,6 +1,7 @@
 package resume.repository;
 
 import resume.model.*;
+import resume.web.dto.activity.ActivityResponseDto;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.test.autoconfigure.orm.jpa.*;
@@ -43,6 +44,30 @@ class ActivityRepositoryTest {
         assertThat(reloaded.getTitle()).isEqualTo("New");
     }
 
+    @Test
+    void updateIfVersion_checksOwnerAndVersion() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi").email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+        var a = activityRepository.saveAndFlush(Activity.builder()
+                .person(p).year(2020).type(ActivityType.PROJECT).title("Old").build());
+        var id = a.getId();
+
+        assertThat(activityRepository.updateIfVersion(id, java.util.UUID.randomUUID(), null,
+                2021, ActivityType.EDUCATION, "Stolen", "stolen", null, null)).isZero();
+        assertThat(activityRepository.updateIfVersion(id, p.getId(), 0L,
+                2021, ActivityType.EDUCATION, "Développeur", "developpeur", "desc", null)).isEqualTo(1);
+        assertThat(activityRepository.updateIfVersion(id, p.getId(), 0L,
+                2022, ActivityType.OTHER, "Stale", "stale", null, null)).isZero();
+
+        var reloaded = activityRepository.findById(id).orElseThrow();
+        assertThat(reloaded.getTitle()).isEqualTo("Développeur");
+        assertThat(reloaded.getTitleKey()).isEqualTo("developpeur");
+        assertThat(reloaded.getVersion()).isEqualTo(1);
+        assertThat(activityRepository.lockVersionById(id)).contains(1L);
+        assertThat(activityRepository.findActivityDtosByPersonId(p.getId(), org.springframework.data.domain.PageRequest.of(0, 10)))
+                .extracting(ActivityResponseDto::version).containsExactly(1L);
+    }
+
     @Test
     void deleteSingleActivity() {
         var p = personRepository.save(Person.builder()
@@ -120,4 +145,159 @@ class ActivityRepositoryTest {
         assertThat(top10.get(0).getYear()).isEqualTo(2024);
         assertThat(top10.get(top10.size()-1).getYear()).isEqualTo(2015);
     }
-}
\ No newline at end of file
+
+    @Test
+    void keysetPagingByYearDesc() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+
+        for (int y : new int[]{2020, 2022, 2021, 2022, 2019}) {
+            activityRepository.save(Activity.builder().person(p).year(y).type(ActivityType.PROJECT).title("Y"+y).build());
+        }
+
+        var first = activityRepository.findFirstByPersonIdByYear(p.getId(), org.springframework.data.domain.Limit.of(2));
+        assertThat(first).extracting(Activity::getYear).containsExactly(2022, 2022);
+
+        var last = first.get(1);
+        var next = activityRepository.findAfterByPersonIdByYear(p.getId(), last.getYear(), last.getId(),
+                org.springframework.data.domain.Limit.of(10));
+        assertThat(next).extracting(Activity::getYear).containsExactly(2021, 2020, 2019);
+        assertThat(activityRepository.countByPersonId(p.getId())).isEqualTo(5);
+
+        // cursor between the two 2022 rows
+        var afterFirst = activityRepository.findAfterByPersonIdByYear(p.getId(), 2022, first.get(0).getId(),
+                org.springframework.data.domain.Limit.of(10));
+        assertThat(afterFirst).extracting(Activity::getId).first().isEqualTo(first.get(1).getId());
+        assertThat(afterFirst).extracting(Activity::getYear).containsExactly(2022, 2021, 2020, 2019);
+    }
+
+    @Test
+    void insertBatchPersistsAndDetaches() {
+        var p = personRepository.saveAndFlush(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+
+        var chunk = new java.util.ArrayList<Activity>();
+        for (int y = 2000; y < 2005; y++) {
+            chunk.add(Activity.builder().person(p).year(y).type(ActivityType.PROJECT).title("B"+y).build());
+        }
+        activityRepository.insertBatch(chunk);
+        assertThat(chunk).allSatisfy(a -> assertThat(a.getId()).isNotNull());
+
+        // p is detached after the first chunk; it still works as the FK reference
+        activityRepository.insertBatch(List.of(
+                Activity.builder().person(p).year(2010).type(ActivityType.OTHER).title("Next").build()));
+
+        assertThat(activityRepository.countByPersonId(p.getId())).isEqualTo(6);
+    }
+
+    @Test
+    void dtoQueriesByPersonAndTitle() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+
+        activityRepository.save(Activity.builder().person(p).year(2019).type(ActivityType.PROJECT)
+                .title("Java API").description("Long text").build());
+        activityRepository.save(Activity.builder().person(p).year(2023).type(ActivityType.EDUCATION)
+                .title("Master").build());
+
+        var byYear = org.springframework.data.domain.PageRequest.of(0, 10,
+                org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Order.desc("year")));
+
+        var rows = activityRepository.findActivityDtosByPersonId(p.getId(), byYear);
+        assertThat(rows.getContent()).extracting(d -> d.title()).containsExactly("Master", "Java API");
+        assertThat(rows.getContent().get(1).description()).isEqualTo("Long text");
+
+        assertThat(activityRepository.searchActivityDtosByTitle("%java%", byYear).getContent())
+                .extracting(d -> d.year()).containsExactly(2019);
+    }
+
+    @Test
+    void summaryQueriesSkipDescription() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+        var a = activityRepository.save(Activity.builder().person(p).year(2019).type(ActivityType.PROJECT)
+                .title("Java API").description("Long text").build());
+
+        var byYear = org.springframework.data.domain.PageRequest.of(0, 10);
+
+        assertThat(activityRepository.findActivitySummariesByPersonId(p.getId(), byYear).getContent())
+                .singleElement()
+                .satisfies(d -> {
+                    assertThat(d.title()).isEqualTo("Java API");
+                    assertThat(d.description()).isNull();
+                    assertThat(d.version()).isEqualTo(a.getVersion());
+                });
+        assertThat(activityRepository.findAllActivitySummariesByPersonId(p.getId()))
+                .extracting(d -> d.version()).containsExactly(a.getVersion());
+        assertThat(activityRepository.searchActivitySummariesByTitle("%api%", byYear).getContent()).hasSize(1);
+        assertThat(activityRepository.findAllActivitySummariesByPersonId(p.getId())).hasSize(1);
+
+        assertThat(activityRepository.findDescriptionById(a.getId()))
+                .hasValueSatisfying(d -> assertThat(d.description()).isEqualTo("Long text"));
+        assertThat(activityRepository.findDescriptionById(java.util.UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void recentByPersonIds_topKPerPerson_inOneQuery() {
+        var ikram = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+        var yacine = personRepository.save(Person.builder()
+                .firstName("Yacine").lastName("Kartout")
+                .email("yacine@mail.fr").passwordHash("x".repeat(60)).build());
+
+        for (int y = 2015; y < 2020; y++) {
+            activityRepository.save(Activity.builder().person(ikram).year(y).type(ActivityType.PROJECT).title("I" + y).build());
+        }
+        activityRepository.save(Activity.builder().person(yacine).year(2001).type(ActivityType.EDUCATION).title("Y2001").build());
+
+        var rows = activityRepository.findRecentByPersonIds(List.of(ikram.getId(), yacine.getId()), 3);
+
+        assertThat(rows.stream().filter(r -> r.getPersonId().equals(ikram.getId())).map(r -> r.getYear()))
+                .containsExactly(2019, 2018, 2017);
+        assertThat(rows.stream().filter(r -> r.getPersonId().equals(yacine.getId())).map(r -> r.getTitle()))
+                .containsExactly("Y2001");
+    }
+
+    @Test
+    void statsByPersonIds_groupsByPersonAndType() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+
+        activityRepository.save(Activity.builder().person(p).year(2018).type(ActivityType.PROJECT).title("A").build());
+        activityRepository.save(Activity.builder().person(p).year(2021).type(ActivityType.PROJECT).title("B").build());
+        activityRepository.save(Activity.builder().person(p).year(2015).type(ActivityType.EDUCATION).title("C").build());
+
+        var rows = activityRepository.findStatsByPersonIds(List.of(p.getId()));
+
+        assertThat(rows).hasSize(2);
+        var project = rows.stream().filter(r -> r.getType() == ActivityType.PROJECT).findFirst().orElseThrow();
+        assertThat(project.getTotal()).isEqualTo(2);
+        assertThat(project.getLatestYear()).isEqualTo(2021);
+    }
+
+    @Test
+    void titlePrefix_usesNormalisedKey() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+        activityRepository.saveAndFlush(Activity.builder().person(p).year(2020).type(ActivityType.PROJECT)
+                .title("Développeur Java").description("Long text").build());
+        activityRepository.saveAndFlush(Activity.builder().person(p).year(2021).type(ActivityType.PROJECT)
+                .title("Java API").build());
+
+        var page = org.springframework.data.domain.PageRequest.of(0, 10);
+
+        assertThat(activityRepository.searchActivityDtosByTitlePrefix("developpeur%", page).getContent())
+                .singleElement()
+                .satisfies(d -> assertThat(d.description()).isEqualTo("Long text"));
+        assertThat(activityRepository.searchActivitySummariesByTitlePrefix("java%", page).getContent())
+                .extracting(d -> d.title()).containsExactly("Java API");
+        assertThat(activityRepository.countByTitleKeyPrefix("d%")).isEqualTo(1);
+    }
+}
@@ -21,6 +21,9 @@ class PersonRepositoryTest {
     @Autowired
     PersonRepository personRepository;
 
+    @Autowired
+    jakarta.persistence.EntityManager entityManager;
+
 
     @Test
     void createReadUpdateDeletePerson() {
@@ -77,4 +80,148 @@ class PersonRepositoryTest {
         assertThatThrownBy(() -> personRepository.saveAndFlush(p2))
                 .isInstanceOf(DataIntegrityViolationException.class);
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void keysetPagingByLastNameThenId() {
+        for (var last : new String[]{"Durand", "Martin", "Bernard", "Martin", "Petit"}) {
+            personRepository.save(Person.builder()
+                    .firstName("X").lastName(last)
+                    .email(java.util.UUID.randomUUID() + "@mail.fr")
+                    .passwordHash("x".repeat(60))
+                    .build());
+        }
+
+        var first = personRepository.findFirstByLastName(org.springframework.data.domain.Limit.of(2));
+        assertThat(first).extracting(Person::getLastName).containsExactly("Bernard", "Durand");
+
+        var last = first.get(1);
+        var next = personRepository.findAfterByLastName(last.getLastName(), last.getId(),
+                org.springframework.data.domain.Limit.of(10));
+        assertThat(next).extracting(Person::getLastName).containsExactly("Martin", "Martin", "Petit");
+        assertThat(next.get(0).getId()).isNotEqualTo(next.get(1).getId());
+    }
+
+    @Test
+    void keysetPaging_pageBoundaryInsideEqualLastNames() {
+        for (var last : new String[]{"Martin", "Martin", "Bernard", "Martin", "Petit", "Martin"}) {
+            personRepository.save(Person.builder()
+                    .firstName("X").lastName(last)
+                    .email(java.util.UUID.randomUUID() + "@mail.fr")
+                    .passwordHash("x".repeat(60))
+                    .build());
+        }
+
+        // one row per page: every cursor but the first and last sits between two "Martin"
+        var seen = new java.util.ArrayList<Person>(personRepository.findFirstByLastName(org.springframework.data.domain.Limit.of(1)));
+        while (true) {
+            var last = seen.get(seen.size() - 1);
+            var page = personRepository.findAfterByLastName(last.getLastName(), last.getId(),
+                    org.springframework.data.domain.Limit.of(1));
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.addAll(page);
+        }
+
+        assertThat(seen).extracting(Person::getLastName)
+                .containsExactly("Bernard", "Martin", "Martin", "Martin", "Martin", "Petit");
+        // same rows, same order as one single page (UUID.compareTo is signed, so compare with the database order)
+        assertThat(seen).extracting(Person::getId).containsExactlyElementsOf(
+                personRepository.findFirstByLastName(org.springframework.data.domain.Limit.of(10)).stream()
+                        .map(Person::getId).toList());
+    }
+
+    @Test
+    void dtoQueriesSortPageAndSearch() {
+        for (var last : new String[]{"Martin", "Bernard", "Durand"}) {
+            personRepository.save(Person.builder()
+                    .firstName("X").lastName(last)
+                    .email(last.toLowerCase() + "@mail.fr")
+                    .passwordHash("x".repeat(60))
+                    .build());
+        }
+        var byLastName = org.springframework.data.domain.PageRequest.of(0, 2,
+                org.springframework.data.domain.Sort.by("lastName"));
+
+        var page = personRepository.findPersonDtos(byLastName);
+        assertThat(page.getContent()).extracting(d -> d.lastName()).containsExactly("Bernard", "Durand");
+        assertThat(page.getContent().get(0).activities()).isEmpty();
+        assertThat(page.hasNext()).isTrue();
+
+        var found = personRepository.searchPersonDtos("ART", byLastName);
+        assertThat(found.getContent()).extracting(d -> d.email()).containsExactly("martin@mail.fr");
+
+        var ids = java.util.List.of(page.getContent().get(1).id());
+        assertThat(personRepository.findPersonDtosByIdIn(ids)).extracting(d -> d.lastName()).containsExactly("Durand");
+    }
+
+    @Test
+    void searchKeys_maintainedByListener_andPrefixQuery() {
+        var p = personRepository.saveAndFlush(Person.builder()
+                .firstName("Hélène").lastName("Éloïse Durand")
+                .email("helene@mail.fr").passwordHash("x".repeat(60)).build());
+        personRepository.saveAndFlush(Person.builder()
+                .firstName("Yacine").lastName("Kartout")
+                .email("yacine@mail.fr").passwordHash("x".repeat(60)).build());
+
+        assertThat(p.getFirstNameKey()).isEqualTo("helene");
+        assertThat(p.getLastNameKey()).isEqualTo("eloise durand");
+
+        var page = org.springframework.data.domain.PageRequest.of(0, 10);
+        assertThat(personRepository.searchPersonDtosByPrefix("HEL%", page).getContent()).isEmpty();
+        assertThat(personRepository.searchPersonDtosByPrefix("hel%", page).getContent())
+                .extracting(d -> d.email()).containsExactly("helene@mail.fr");
+        assertThat(personRepository.countByNameKeyPrefix("elo%")).isEqualTo(1);
+
+        p.setLastName("Martin");
+        personRepository.saveAndFlush(p);
+
+        assertThat(p.getLastNameKey()).isEqualTo("martin");
+        assertThat(personRepository.countByNameKeyPrefix("elo%")).isZero();
+    }
+
+    @Test
+    void updateIfVersion_onlyAppliesToTheExpectedVersion() {
+        var p = personRepository.saveAndFlush(Person.builder()
+                .firstName("Yacine").lastName("Kartout")
+                .email("yacine@mail.fr").passwordHash("x".repeat(60)).build());
+        var id = p.getId();
+        assertThat(p.getVersion()).isZero();
+
+        assertThat(personRepository.updateIfVersion(id, 0L, "Hélène", "helene", null, null, "https://h.fr", null)).isEqualTo(1);
+        // a second tab still holding version 0
+        assertThat(personRepository.updateIfVersion(id, 0L, "Ikram", "ikram", null, null, null, null)).isZero();
+        assertThat(personRepository.updateIfVersion(id, null, null, null, "Durand", "durand", null, null)).isEqualTo(1);
+
+        var reloaded = personRepository.findById(id).orElseThrow();
+        assertThat(reloaded.getFirstName()).isEqualTo("Hélène");
+        assertThat(reloaded.getFirstNameKey()).isEqualTo("helene");
+        assertThat(reloaded.getLastNameKey()).isEqualTo("durand");
+        assertThat(reloaded.getWebsite()).isEqualTo("https://h.fr");
+        assertThat(reloaded.getVersion()).isEqualTo(2);
+        assertThat(personRepository.findPersonDtosByIdIn(java.util.List.of(id)))
+                .extracting(d -> d.version()).containsExactly(2L);
+    }
+
+    @Test
+    void activities_areLoadedLatestYearFirst() {
+        var p = Person.builder()
+                .firstName("Yacine").lastName("Kartout")
+                .email("yacine@mail.fr").passwordHash("x".repeat(60)).build();
+        for (int year : new int[]{2020, 2024, 2022, 2024}) {
+            p.addActivity(Activity.builder().year(year).type(ActivityType.PROJECT).title("A" + year).build());
+        }
+        var id = personRepository.saveAndFlush(p).getId();
+        entityManager.clear();
+
+        var first = personRepository.findWithActivitiesById(id).orElseThrow().getActivities();
+        assertThat(first).extracting(Activity::getYear).containsExactly(2024, 2024, 2022, 2020);
+
+        entityManager.clear();
+        // same order on every load, ties included: the CV ETag hashes it
+        assertThat(personRepository.findWithActivitiesById(id).orElseThrow().getActivities())
+                .extracting(Activity::getId)
+                .containsExactlyElementsOf(first.stream().map(Activity::getId).toList());
+    }
+}
@@ -0,0 +1,64 @@
+package resume.repository;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import resume.model.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+
+// the file profile builds the schema with Flyway and only validates it with Hibernate
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=PostgreSQL;DATABASE_TO_UPPER=false",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    ActivityRepository activityRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratedSchemaMatchesEntities() {
+        var p = personRepository.save(Person.builder()
+                .firstName("Ikram").lastName("Loukridi")
+                .email("ikram@mail.fr").passwordHash("x".repeat(60)).build());
+        activityRepository.saveAndFlush(Activity.builder()
+                .person(p).year(2020).type(ActivityType.PROJECT).title("CV-Pro").description("Long text").build());
+
+        assertThat(activityRepository.countByPersonId(p.getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\"", Integer.class)).isPositive();
+    }
+
+    @Test
+    void v2_backfillsSearchKeys() {
+        var url = "jdbc:h2:mem:backfill;MODE=PostgreSQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1";
+        var flyway = org.flywaydb.core.Flyway.configure().dataSource(url, "sa", "");
+        flyway.target("1").load().migrate();
+
+        var jdbc = new JdbcTemplate(new org.springframework.jdbc.datasource.DriverManagerDataSource(url, "sa", ""));
+        var id = java.util.UUID.randomUUID();
+        jdbc.update("insert into \"persons\" (\"id\", \"first_name\", \"last_name\", \"email\", \"password_hash\") values (?, ?, ?, ?, ?)",
+                id, "Hélène", "Éloïse", "helene@mail.fr", "x".repeat(60));
+        jdbc.update("insert into \"activities\" (\"id\", \"year\", \"type\", \"title\", \"person_id\") values (?, ?, ?, ?, ?)",
+                java.util.UUID.randomUUID(), 2020, "PROJECT", "Développeur  JAVA", id);
+
+        flyway.target("latest").load().migrate();
+
+        assertThat(jdbc.queryForObject("select \"first_name_key\" || '/' || \"last_name_key\" from \"persons\"", String.class))
+                .isEqualTo("helene/eloise");
+        assertThat(jdbc.queryForObject("select \"title_key\" from \"activities\"", String.class))
+                .isEqualTo("developpeur java");
+    }
+}
@@ -7,7 +7,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import resume.model.*;
 import resume.repository.*;
+import resume.repository.projection.RecentActivityView;
+import resume.service.cache.CvCache;
+import resume.service.search.ActivityFacetIndex;
+import resume.service.search.ActivityTextIndex;
+import resume.service.search.PersonSearchIndex;
 import resume.web.dto.activity.ActivityCreateRequestDto;
+import resume.web.dto.activity.ActivityResponseDto;
 import resume.service.exceptions.*;
 
 import java.util.*;
@@ -21,6 +27,11 @@ class ActivityServiceTest {
 
     @Mock ActivityRepository activityRepository;
     @Mock PersonRepository personRepository;
+    @Mock PersonSearchIndex searchIndex;
+    @Mock ActivityFacetIndex facetIndex;
+    @Mock ActivityTextIndex textIndex;
+    @Mock CountEstimator countEstimator;
+    @Mock CvCache cvCache;
 
     @InjectMocks ActivityService activityService;
 
@@ -80,6 +91,44 @@ class ActivityServiceTest {
         verifyNoInteractions(activityRepository);
     }
 
+    // ---------- IMPORT ACTIVITIES ----------
+
+    @Test
+    void importActivities_ok_persistsInChunks() {
+        var personId = UUID.randomUUID();
+        org.springframework.test.util.ReflectionTestUtils.setField(activityService, "batchSize", 2);
+
+        when(personRepository.existsById(personId)).thenReturn(true);
+        when(personRepository.getReferenceById(personId)).thenReturn(Person.builder().id(personId).build());
+
+        var rows = List.of(
+                new ActivityCreateRequestDto(2020, ActivityType.PROJECT, "A", null, null),
+                new ActivityCreateRequestDto(2021, ActivityType.PROJECT, "B", null, null),
+                new ActivityCreateRequestDto(2022, ActivityType.PROJECT, "C", null, null)
+        );
+
+        var imported = activityService.importActivities(personId, personId, rows.iterator());
+
+        assertThat(imported).isEqualTo(3);
+        verify(personRepository).existsById(personId);
+        verify(personRepository).getReferenceById(personId);
+        verify(activityRepository, times(2)).insertBatch(anyList());
+        // no transaction here, so the new rows are read back for the indexes right away, per chunk
+        verify(activityRepository, times(2)).findIndexViewsByIdIn(anyCollection());
+        verifyNoMoreInteractions(personRepository, activityRepository);
+    }
+
+    @Test
+    void importActivities_forbidden_ifNotOwner() {
+        var rows = List.<ActivityCreateRequestDto>of().iterator();
+
+        assertThatThrownBy(() ->
+                activityService.importActivities(UUID.randomUUID(), UUID.randomUUID(), rows)
+        ).isInstanceOf(ForbiddenException.class);
+
+        verifyNoInteractions(personRepository, activityRepository);
+    }
+
     // ---------- LIST ACTIVITIES ----------
 
     @Test
@@ -101,43 +150,110 @@ class ActivityServiceTest {
         verifyNoMoreInteractions(activityRepository);
     }
 
-    // ---------- UPDATE ACTIVITY ----------
+    @Test
+    void listActivityDtos_withoutTotal_skipsCountQuery() {
+        var personId = UUID.randomUUID();
+        var slice = new SliceImpl<>(List.of(new ActivityResponseDto(UUID.randomUUID(), 2024, ActivityType.PROJECT, "Java", null)), PageRequest.of(0, 1), true);
+
+        when(activityRepository.findActivityDtosByPersonId(eq(personId), any(Pageable.class)))
+                .thenReturn(slice);
+
+        var result = activityService.listActivityDtos(personId, 0, 1, CountMode.NONE, false);
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result).isNotInstanceOf(Page.class);
+
+        verify(activityRepository).findActivityDtosByPersonId(eq(personId), any(Pageable.class));
+        verifyNoMoreInteractions(activityRepository);
+        verifyNoInteractions(countEstimator);
+    }
 
     @Test
-    void updateActivity_ok_forOwner() {
-        var ownerId = UUID.randomUUID();
-        var p = Person.builder().id(ownerId).build();
-        var actId = UUID.randomUUID();
+    void listActivityDtos_approximateTotal_usesEstimator() {
+        var personId = UUID.randomUUID();
+        var slice = new SliceImpl<>(List.of(new ActivityResponseDto(UUID.randomUUID(), 2024, ActivityType.PROJECT, "Java", null)), PageRequest.of(0, 1), true);
 
-        var a = Activity.builder()
-                .id(actId)
-                .person(p)
-                .year(2020)
-                .type(ActivityType.PROJECT)
-                .title("Old")
-                .build();
+        when(activityRepository.findActivityDtosByPersonId(eq(personId), any(Pageable.class)))
+                .thenReturn(slice);
+        when(countEstimator.estimate(eq("activities:" + personId), any())).thenReturn(42L);
 
-        when(activityRepository.findById(actId)).thenReturn(Optional.of(a));
-        when(activityRepository.save(any(Activity.class)))
-                .thenAnswer(inv -> inv.getArgument(0));
+        var result = activityService.listActivityDtos(personId, 0, 1, CountMode.ESTIMATE, false);
+
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<ActivityResponseDto>) result).getTotalElements()).isEqualTo(42);
+    }
+
+    // ---------- UPDATE ACTIVITY ----------
 
+    @Test
+    void updateActivity_ok_forOwner_withoutReadingTheRow() {
+        var ownerId = UUID.randomUUID();
+        var actId = UUID.randomUUID();
         var req = new ActivityCreateRequestDto(
-                2021, ActivityType.EDUCATION, "New", "desc", "http://new"
+                2021, ActivityType.EDUCATION, "Nouvé", "desc", "http://new"
         );
 
-        var updated = activityService.updateActivity(actId, ownerId, req);
+        when(activityRepository.updateIfVersion(actId, ownerId, 3L,
+                2021, ActivityType.EDUCATION, "Nouvé", "nouve", "desc", "http://new")).thenReturn(1);
+        when(personRepository.getReferenceById(ownerId)).thenReturn(Person.builder().id(ownerId).build());
+
+        var updated = activityService.updateActivity(actId, ownerId, req, 3L);
 
+        assertThat(updated.getId()).isEqualTo(actId);
+        assertThat(updated.getVersion()).isEqualTo(4);
         assertThat(updated.getYear()).isEqualTo(2021);
         assertThat(updated.getType()).isEqualTo(ActivityType.EDUCATION);
-        assertThat(updated.getTitle()).isEqualTo("New");
+        assertThat(updated.getTitle()).isEqualTo("Nouvé");
         assertThat(updated.getDescription()).isEqualTo("desc");
         assertThat(updated.getUrl()).isEqualTo("http://new");
 
-        verify(activityRepository).findById(actId);
-        verify(activityRepository).save(a);
+        verify(cvCache).invalidate(ownerId);
         verifyNoMoreInteractions(activityRepository);
     }
 
+    @Test
+    void updateActivity_withoutIfMatch_updatesTheLockedVersion() {
+        var ownerId = UUID.randomUUID();
+        var actId = UUID.randomUUID();
+        var req = new ActivityCreateRequestDto(2021, ActivityType.EDUCATION, "New", null, null);
+
+        when(activityRepository.lockVersionById(actId)).thenReturn(Optional.of(6L));
+        when(activityRepository.updateIfVersion(eq(actId), eq(ownerId), eq(6L),
+                anyInt(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertThat(activityService.updateActivity(actId, ownerId, req, null).getVersion()).isEqualTo(7);
+    }
+
+    @Test
+    void updateActivity_withoutIfMatch_notFound_isNotAPreconditionFailure() {
+        var actId = UUID.randomUUID();
+        var req = new ActivityCreateRequestDto(2021, ActivityType.EDUCATION, "New", null, null);
+
+        when(activityRepository.lockVersionById(actId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() ->
+                activityService.updateActivity(actId, UUID.randomUUID(), req, null)
+        ).isInstanceOf(NotFoundException.class);
+
+        verify(activityRepository, never()).updateIfVersion(any(), any(), any(), anyInt(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateActivity_preconditionFailed_whenVersionIsStale() {
+        var ownerId = UUID.randomUUID();
+        var actId = UUID.randomUUID();
+        var a = Activity.builder().id(actId).person(Person.builder().id(ownerId).build()).version(5).build();
+        var req = new ActivityCreateRequestDto(2021, ActivityType.EDUCATION, "New", null, null);
+
+        when(activityRepository.findById(actId)).thenReturn(Optional.of(a));
+
+        assertThatThrownBy(() ->
+                activityService.updateActivity(actId, ownerId, req, 4L)
+        ).isInstanceOf(PreconditionFailedException.class);
+
+        verifyNoInteractions(cvCache);
+    }
+
     @Test
     void updateActivity_forbidden_ifNotOwner() {
         var ownerId = UUID.randomUUID();
@@ -147,6 +263,7 @@ class ActivityServiceTest {
 
         var a = Activity.builder().id(actId).person(p).build();
 
+        when(activityRepository.lockVersionById(actId)).thenReturn(Optional.of(0L));
         when(activityRepository.findById(actId)).thenReturn(Optional.of(a));
 
         var req = new ActivityCreateRequestDto(
@@ -154,11 +271,10 @@ class ActivityServiceTest {
         );
 
         assertThatThrownBy(() ->
-                activityService.updateActivity(actId, otherId, req)
+                activityService.updateActivity(actId, otherId, req, null)
         ).isInstanceOf(ForbiddenException.class);
 
         verify(activityRepository).findById(actId);
-        verifyNoMoreInteractions(activityRepository);
     }
 
     @Test
@@ -171,11 +287,10 @@ class ActivityServiceTest {
         );
 
         assertThatThrownBy(() ->
-                activityService.updateActivity(actId, UUID.randomUUID(), req)
+                activityService.updateActivity(actId, UUID.randomUUID(), req, 2L)
         ).isInstanceOf(NotFoundException.class);
 
         verify(activityRepository).findById(actId);
-        verifyNoMoreInteractions(activityRepository);
     }
 
     // ---------- DELETE ACTIVITY ----------
@@ -227,4 +342,37 @@ class ActivityServiceTest {
         verify(activityRepository).findById(actId);
         verifyNoMoreInteractions(activityRepository);
     }
+
+    // ---------- RECENT BY PERSONS ----------
+
+    @Test
+    void recentByPersons_groupsRows_inRequestOrder_withEmptyLists() {
+        var ikram = UUID.randomUUID();
+        var yacine = UUID.randomUUID();
+        var rows = List.of(
+                recentRow(yacine, 2024, "CV-Pro"),
+                recentRow(yacine, 2022, "E-jury")
+        );
+        when(activityRepository.findRecentByPersonIds(anyCollection(), eq(2))).thenReturn(rows);
+
+        var recent = activityService.recentByPersons(List.of(ikram, yacine), 2);
+
+        assertThat(recent).containsOnlyKeys(ikram, yacine);
+        assertThat(recent.keySet()).containsExactly(ikram, yacine);
+        assertThat(recent.get(ikram)).isEmpty();
+        assertThat(recent.get(yacine)).extracting(r -> r.title()).containsExactly("CV-Pro", "E-jury");
+        assertThat(recent.get(yacine).get(0).description()).isNull();
+    }
+
+    private static RecentActivityView recentRow(UUID personId, int year, String title) {
+        var id = UUID.randomUUID();
+        return new RecentActivityView() {
+            public UUID getPersonId() { return personId; }
+            public UUID getId() { return id; }
+            public int getYear() { return year; }
+            public ActivityType getType() { return ActivityType.PROJECT; }
+            public String getTitle() { return title; }
+            public String getUrl() { return null; }
+        };
+    }
 }
@@ -0,0 +1,45 @@
+package resume.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AfterCommitTest {
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void run_waitsForTheCommit() {
+        var ran = new ArrayList<String>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> ran.add("a"));
+        assertThat(ran).isEmpty();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(ran).containsExactly("a");
+    }
+
+    @Test
+    void run_fromAnAfterCommitCallback_runsAtOnce() {
+        var ran = new ArrayList<String>();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> {
+            ran.add("outer");
+            AfterCommit.run(() -> ran.add("inner"));
+        });
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertThat(ran).containsExactly("outer", "inner");
+    }
+}
@@ -0,0 +1,62 @@
+package resume.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.context.annotation.Import;
+import resume.model.*;
+import resume.repository.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {"app.count-estimate.cap=3", "app.count-estimate.max-entries=2"})
+@Import(CountEstimator.class)
+class CountEstimatorTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    ActivityRepository activityRepository;
+
+    @Autowired
+    CountEstimator countEstimator;
+
+    @Test
+    void filteredCounts_stopAtTheCap_andAreCached() {
+        var p = person("a@mail.fr");
+        for (int i = 0; i < 5; i++) {
+            activityRepository.save(Activity.builder().person(p).year(2020 + i).type(ActivityType.PROJECT)
+                    .title("Java " + i).build());
+        }
+        activityRepository.flush();
+
+        assertThat(activityRepository.countByPersonIdUpTo(p.getId(), 3)).isEqualTo(3);
+        assertThat(activityRepository.countByTitlePatternUpTo("%java%", 10)).isEqualTo(5);
+        assertThat(activityRepository.countByTitleKeyPrefixUpTo("java%", 2)).isEqualTo(2);
+        assertThat(personRepository.countByNameKeyPrefixUpTo("kart%", 10)).isEqualTo(1);
+        assertThat(personRepository.countByNameOrActivityTitleUpTo("java", 10)).isEqualTo(1);
+
+        var calls = new AtomicInteger();
+        assertThat(countEstimator.estimate("a", cap -> {
+            calls.incrementAndGet();
+            return activityRepository.countByPersonIdUpTo(p.getId(), cap);
+        })).isEqualTo(3);
+        assertThat(countEstimator.estimate("a", cap -> calls.incrementAndGet())).isEqualTo(3);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void tableRows_readsTheDatabaseEstimate_orFallsBackToTheExactCount() {
+        // H2 keeps a row estimate per table: the exact count is not run
+        assertThat(countEstimator.tableRows("persons", () -> -1)).isNotNegative();
+        assertThat(countEstimator.tableRows("no_such_table", () -> 42)).isEqualTo(42);
+    }
+
+    private Person person(String email) {
+        return personRepository.save(Person.builder()
+                .firstName("Yacine").lastName("Kartout").email(email).passwordHash("x".repeat(60)).build());
+    }
+}
@@ -0,0 +1,50 @@
+package resume.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.context.annotation.Import;
+import resume.model.*;
+import resume.repository.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+// chunks of 2 persons: 5 persons end with a partial chunk, and activities must not leak across chunks
+@DataJpaTest(properties = "app.export.chunk-size=2")
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired PersonRepository personRepository;
+    @Autowired ExportService exportService;
+
+    @Test
+    void exportPersons_streamsEveryPersonWithItsActivities_acrossChunks() {
+        var expected = new HashMap<String, List<String>>();
+        for (int i = 0; i < 5; i++) {
+            var p = Person.builder()
+                    .firstName("F" + i).lastName("L" + i)
+                    .email("p" + i + "@mail.fr").passwordHash("x".repeat(60)).build();
+            var titles = new ArrayList<String>();
+            for (int y = 0; y < i; y++) {
+                p.addActivity(Activity.builder().year(2000 + y).type(ActivityType.PROJECT).title("P" + i + "A" + y).build());
+                titles.add(0, "P" + i + "A" + y);
+            }
+            personRepository.save(p);
+            expected.put(p.getEmail(), titles);
+        }
+        personRepository.flush();
+
+        var seen = new ArrayList<String>();
+        var exported = new HashMap<String, List<String>>();
+        exportService.exportPersons((p, activities) -> {
+            seen.add(p.getEmail());
+            exported.put(p.getEmail(), activities.stream().map(Activity::getTitle).toList());
+        });
+
+        assertThat(seen).doesNotHaveDuplicates().hasSize(5);
+        // each person's own activities, once each, latest year first
+        assertThat(exported).isEqualTo(expected);
+    }
+}
@@ -4,10 +4,23 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import resume.model.ActivityType;
 import resume.model.Person;
+import resume.repository.ActivityRepository;
 import resume.repository.PersonRepository;
-import resume.web.security.PasswordHasher;
+import resume.repository.projection.ActivityStatsView;
+import resume.service.cache.CredentialCache;
+import resume.service.cache.CvCache;
+import resume.service.search.ActivityFacetIndex;
+import resume.service.search.ActivityTextIndex;
+import resume.service.search.PersonNameIndex;
+import resume.service.search.PersonSearchIndex;
+import resume.service.views.PersonViewCounter;
+import resume.web.dto.activity.ActivityResponseDto;
 import resume.web.dto.person.PersonCreateRequestDto;
+import resume.web.dto.person.PersonResponseDto;
+import resume.web.dto.person.PersonUpdateRequestDto;
 import resume.service.exceptions.*;
 
 import java.time.LocalDate;
@@ -24,7 +37,31 @@ class PersonServiceTest {
     PersonRepository personRepository;
 
     @Mock
-    PasswordHasher passwordHasher;
+    ActivityRepository activityRepository;
+
+    @Mock
+    PersonSearchIndex searchIndex;
+
+    @Mock
+    PersonNameIndex nameIndex;
+
+    @Mock
+    ActivityFacetIndex facetIndex;
+
+    @Mock
+    ActivityTextIndex textIndex;
+
+    @Mock
+    CountEstimator countEstimator;
+
+    @Mock
+    CvCache cvCache;
+
+    @Mock
+    CredentialCache credentialCache;
+
+    @Mock
+    PersonViewCounter viewCounter;
 
     @InjectMocks
     PersonService personService;
@@ -42,12 +79,11 @@ class PersonServiceTest {
 
         when(personRepository.findById(creatorId)).thenReturn(Optional.of(mock(Person.class)));
         when(personRepository.existsByEmail("a@b.com")).thenReturn(false);
-        when(passwordHasher.hash("pass")).thenReturn("HASH");
 
         when(personRepository.save(any(Person.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        var saved = personService.createPerson(req, creatorId);
+        var saved = personService.createPerson(req, "HASH", creatorId);
 
         assertThat(saved.getFirstName()).isEqualTo("a");
         assertThat(saved.getEmail()).isEqualTo("a@b.com");
@@ -55,9 +91,8 @@ class PersonServiceTest {
 
         verify(personRepository).findById(creatorId);
         verify(personRepository).existsByEmail("a@b.com");
-        verify(passwordHasher).hash("pass");
         verify(personRepository).save(any(Person.class));
-        verifyNoMoreInteractions(personRepository, passwordHasher);
+        verifyNoMoreInteractions(personRepository);
     }
 
     @Test
@@ -71,20 +106,18 @@ class PersonServiceTest {
         when(personRepository.findById(creatorId))
                 .thenReturn(Optional.of(Person.builder().id(creatorId).build()));
         when(personRepository.existsByEmail("x@x.com")).thenReturn(false);
-        when(passwordHasher.hash("x")).thenReturn("HASH2");
         when(personRepository.save(any(Person.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
-        var saved = personService.createPerson(req, creatorId);
+        var saved = personService.createPerson(req, "HASH2", creatorId);
 
         assertThat(saved.getEmail()).isEqualTo("x@x.com");
         assertThat(saved.getPasswordHash()).isEqualTo("HASH2");
 
         verify(personRepository).findById(creatorId);
         verify(personRepository).existsByEmail("x@x.com");
-        verify(passwordHasher).hash("x");
         verify(personRepository).save(any(Person.class));
-        verifyNoMoreInteractions(personRepository, passwordHasher);
+        verifyNoMoreInteractions(personRepository);
     }
 
     @Test
@@ -97,12 +130,12 @@ class PersonServiceTest {
         when(personRepository.findById(creatorId))
                 .thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> personService.createPerson(req, creatorId))
+        assertThatThrownBy(() -> personService.createPerson(req, "HASH", creatorId))
                 .isInstanceOf(ForbiddenException.class)
                 .hasMessageContaining("authenticated");
 
         verify(personRepository).findById(creatorId);
-        verifyNoMoreInteractions(personRepository, passwordHasher);
+        verifyNoMoreInteractions(personRepository);
     }
 
     @Test
@@ -118,13 +151,13 @@ class PersonServiceTest {
         when(personRepository.findById(creatorId)).thenReturn(Optional.of(mock(Person.class)));
         when(personRepository.existsByEmail("a@b.com")).thenReturn(true);
 
-        assertThatThrownBy(() -> personService.createPerson(req, creatorId))
+        assertThatThrownBy(() -> personService.createPerson(req, "HASH", creatorId))
                 .isInstanceOf(ConflictException.class)
                 .hasMessageContaining("Email");
 
         verify(personRepository).findById(creatorId);
         verify(personRepository).existsByEmail("a@b.com");
-        verifyNoMoreInteractions(personRepository, passwordHasher);
+        verifyNoMoreInteractions(personRepository);
     }
 
     // ---------- READ PERSON ----------
@@ -157,12 +190,102 @@ class PersonServiceTest {
         verifyNoMoreInteractions(personRepository);
     }
 
+    @Test
+    void getPersonSummary_combinesProjections_withoutLoadingEntities() {
+        var id = UUID.randomUUID();
+        var row = new PersonResponseDto(id, "Yacine", "Kartout", "y@mail.fr", null, null);
+        var act = new ActivityResponseDto(UUID.randomUUID(), 2024, ActivityType.PROJECT, "CV-Pro", null);
+
+        when(personRepository.findPersonDtosByIdIn(List.of(id))).thenReturn(List.of(row));
+        when(activityRepository.findAllActivitySummariesByPersonId(id)).thenReturn(List.of(act));
+
+        var cv = personService.getPersonSummary(id);
+
+        assertThat(cv.lastName()).isEqualTo("Kartout");
+        assertThat(cv.activities()).containsExactly(act);
+        assertThat(cv.activities().get(0).description()).isNull();
+        verify(personRepository, never()).findWithActivitiesById(any());
+    }
+
+    @Test
+    void getPersonSummary_notFound() {
+        var id = UUID.randomUUID();
+        when(personRepository.findPersonDtosByIdIn(List.of(id))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> personService.getPersonSummary(id))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    void listPersonStats_aggregatesOneQueryPerPage() {
+        var withActivities = new PersonResponseDto(UUID.randomUUID(), "Yacine", "Kartout", "y@mail.fr", null, null);
+        var without = new PersonResponseDto(UUID.randomUUID(), "Ikram", "Loukridi", "i@mail.fr", null, null);
+        var rows = List.of(
+                statsRow(withActivities.id(), ActivityType.PROJECT, 3, 2024),
+                statsRow(withActivities.id(), ActivityType.EDUCATION, 1, 2019)
+        );
+
+        when(personRepository.findPersonDtos(any())).thenReturn(new SliceImpl<>(List.of(withActivities, without)));
+        when(activityRepository.findStatsByPersonIds(List.of(withActivities.id(), without.id()))).thenReturn(rows);
+
+        var page = personService.listPersonStats(0, 10, CountMode.NONE).getContent();
+
+        assertThat(page.get(0).activityCount()).isEqualTo(4);
+        assertThat(page.get(0).latestYear()).isEqualTo(2024);
+        assertThat(page.get(0).types()).containsEntry(ActivityType.PROJECT, 3L).containsEntry(ActivityType.EDUCATION, 1L);
+        assertThat(page.get(1).activityCount()).isZero();
+        assertThat(page.get(1).latestYear()).isNull();
+        verify(activityRepository, times(1)).findStatsByPersonIds(any());
+    }
+
+    private static ActivityStatsView statsRow(UUID personId, ActivityType type, long total, int latestYear) {
+        return new ActivityStatsView() {
+            public UUID getPersonId() { return personId; }
+            public ActivityType getType() { return type; }
+            public long getTotal() { return total; }
+            public int getLatestYear() { return latestYear; }
+        };
+    }
+
+    // ---------- UPDATE PERSON ----------
+
+    @Test
+    void updatePerson_conditionalUpdate_thenSingleRead() {
+        var id = UUID.randomUUID();
+        var dto = new PersonUpdateRequestDto("Hélène", " ", null, null);
+        var p = Person.builder().id(id).firstName("Hélène").lastName("Kartout").email("h@mail.fr").version(4).build();
+
+        when(personRepository.updateIfVersion(id, 3L, "Hélène", "helene", null, null, null, null)).thenReturn(1);
+        when(personRepository.findWithActivitiesById(id)).thenReturn(Optional.of(p));
+
+        assertThat(personService.updatePerson(id, id, dto, 3L).getVersion()).isEqualTo(4);
+
+        verify(nameIndex).indexPerson(id, "Hélène", "Kartout");
+        verify(cvCache).invalidate(id);
+        verifyNoMoreInteractions(personRepository);
+    }
+
+    @Test
+    void updatePerson_preconditionFailed_whenVersionIsStale() {
+        var id = UUID.randomUUID();
+        var dto = new PersonUpdateRequestDto(null, null, "https://new.fr", null);
+
+        when(personRepository.updateIfVersion(id, 1L, null, null, null, null, "https://new.fr", null)).thenReturn(0);
+        when(personRepository.existsById(id)).thenReturn(true);
+
+        assertThatThrownBy(() -> personService.updatePerson(id, id, dto, 1L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verifyNoInteractions(cvCache, nameIndex);
+    }
+
     // ---------- DELETE PERSON ----------
 
     @Test
     void deletePerson_ok_forOwner() {
         var id = UUID.randomUUID();
-        var p = Person.builder().id(id).build();
+        var p = Person.builder().id(id).email("yacine@mail.fr").build();
 
         when(personRepository.findById(id)).thenReturn(Optional.of(p));
 
@@ -170,6 +293,9 @@ class PersonServiceTest {
 
         verify(personRepository).findById(id);
         verify(personRepository).delete(p);
+        verify(cvCache).invalidate(id);
+        verify(credentialCache).invalidate("yacine@mail.fr");
+        verify(viewCounter).removePerson(id);
         verifyNoMoreInteractions(personRepository);
     }
 
@@ -0,0 +1,50 @@
+package resume.service.cache;
+
+import org.junit.jupiter.api.*;
+import resume.repository.projection.CredentialView;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CredentialCacheTest {
+
+    final UUID id = UUID.randomUUID();
+    final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_loadsOnce_untilInvalidated() {
+        var cache = new CredentialCache(100, Duration.ofMinutes(1));
+
+        assertThat(cache.get("yacine@mail.fr", this::load)).map(CredentialCache.Credentials::id).contains(id);
+        assertThat(cache.get("yacine@mail.fr", this::load)).isPresent();
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate("YACINE@mail.fr");
+        cache.get("yacine@mail.fr", this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_doesNotCacheUnknownOrDifferentlyCasedEmails() {
+        var cache = new CredentialCache(100, Duration.ofMinutes(1));
+
+        assertThat(cache.get("nobody@mail.fr", e -> Optional.empty())).isEmpty();
+        assertThat(cache.nativeCache().estimatedSize()).isZero();
+
+        cache.get("yacine@mail.fr", this::load);
+        // stored spelling is "yacine@mail.fr": another casing goes back to the database
+        assertThat(cache.get("Yacine@mail.fr", e -> Optional.empty())).isEmpty();
+    }
+
+    private Optional<CredentialView> load(String email) {
+        loads.incrementAndGet();
+        return Optional.of(new CredentialView() {
+            public UUID getId() { return id; }
+            public String getEmail() { return email; }
+            public String getPasswordHash() { return "$2a$10$hash"; }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package resume.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import resume.web.dto.person.PersonResponseDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CvCacheTest {
+
+    @Test
+    void get_loadsOnce_untilInvalidated() {
+        var cache = new CvCache(100, Duration.ofMinutes(1), false, 0, new ObjectMapper());
+        var id = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        var first = cache.get(id, () -> cv(id, "Kartout" + loads.incrementAndGet()));
+        var second = cache.get(id, () -> cv(id, "Kartout" + loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+
+        cache.invalidate(id);
+        var third = cache.get(id, () -> cv(id, "Kartout" + loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+        assertThat(third.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void serialized_keepsJsonAndGzipPerVersion() throws IOException {
+        var mapper = new ObjectMapper();
+        var cache = new CvCache(100, Duration.ofMinutes(1), true, 200, mapper);
+        var id = UUID.randomUUID();
+
+        var cv = cache.get(id, () -> cv(id, "Kartout".repeat(20)));
+
+        assertThat(cv.encoded().json()).isEqualTo(mapper.writeValueAsBytes(cv.body()));
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(cv.encoded().gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(cv.encoded().json());
+        }
+
+        cache.invalidate(id);
+        var next = cache.get(id, () -> cv(id, "K"));
+
+        assertThat(next.encoded().json()).isNotEqualTo(cv.encoded().json());
+        assertThat(next.encoded().gzip()).as("below gzip-min-bytes").isNull();
+    }
+
+    @Test
+    void etag_hashesTheJsonBytes_sameTagForGetAndPut() throws IOException {
+        var mapper = new ObjectMapper();
+        var cache = new CvCache(100, Duration.ofMinutes(1), true, 0, mapper);
+        var id = UUID.randomUUID();
+
+        assertThat(cache.etagOf(cv(id, "A"))).isEqualTo(cache.etagOf(cv(id, "A")));
+        assertThat(cache.etagOf(cv(id, "A"))).isNotEqualTo(cache.etagOf(cv(id, "B")));
+
+        var cached = cache.get(id, () -> cv(id, "A"));
+        assertThat(cached.etag())
+                .isEqualTo(cache.etagOf(cv(id, "A")))
+                .isEqualTo(CvCache.etagOf(null, mapper.writeValueAsBytes(cv(id, "A"))));
+    }
+
+    @Test
+    void etag_isPrefixedWithTheVersion() {
+        var cache = new CvCache(100, Duration.ofMinutes(1), false, 0, new ObjectMapper());
+        var id = UUID.randomUUID();
+        var v3 = new PersonResponseDto(id, "Yacine", "Kartout", "y@mail.fr", null, null, List.of(), 3L);
+
+        assertThat(cache.etagOf(v3)).matches("\"3\\.[A-Za-z0-9_-]{22}\"");
+        assertThat(cache.etagOf(cv(id, "Kartout"))).doesNotContain(".");
+    }
+
+    private static PersonResponseDto cv(UUID id, String lastName) {
+        return new PersonResponseDto(id, "Yacine", lastName, "y@mail.fr", null, null, List.of());
+    }
+}
@@ -0,0 +1,90 @@
+package resume.service.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import resume.model.ActivityType;
+import resume.repository.ActivityRepository;
+import resume.repository.projection.ActivityFacetView;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static resume.model.ActivityType.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityFacetIndexTest {
+
+    @Mock ActivityRepository activityRepository;
+
+    @InjectMocks ActivityFacetIndex index;
+
+    UUID yacine = UUID.randomUUID();
+    UUID ikrame = UUID.randomUUID();
+
+    UUID javaProject = UUID.randomUUID();
+    UUID springJob = UUID.randomUUID();
+    UUID master = UUID.randomUUID();
+    UUID oldProject = UUID.randomUUID();
+
+    @BeforeEach
+    void build() {
+        var rows = List.of(
+                row(javaProject, yacine, PROJECT, 2020, "Java compiler"),
+                row(springJob, yacine, EXPERIENCE, 2022, "Java Spring developer"),
+                row(master, ikrame, EDUCATION, 2021, "Master MIAGE"),
+                row(oldProject, ikrame, PROJECT, 2012, "Website")
+        );
+        when(activityRepository.findAllFacets()).thenReturn(rows);
+        index.rebuild();
+    }
+
+    @Test
+    void filtersByTypeYearAndText_withFacetCounts() {
+        var hits = index.search(query("java", Set.of(PROJECT), 2018, 2022, 1), 0, 10);
+
+        assertThat(hits.ids()).containsExactly(javaProject);
+        assertThat(hits.total()).isEqualTo(1);
+        // the type facet ignores the type filter, the year facet ignores the year range
+        assertThat(hits.types()).containsExactly(entry(EXPERIENCE, 1L), entry(PROJECT, 1L));
+        assertThat(hits.years()).containsExactly(entry(2020, 1L));
+    }
+
+    @Test
+    void ordersByYearDesc_pagesAndBuckets() {
+        var all = index.search(query("", null, null, null, 10), 0, 10);
+
+        assertThat(all.ids()).containsExactly(springJob, master, javaProject, oldProject);
+        assertThat(all.years()).containsExactly(entry(2020, 3L), entry(2010, 1L));
+
+        assertThat(index.search(query("", null, null, null, 1), 1, 2).ids())
+                .containsExactly(javaProject, oldProject);
+    }
+
+    @Test
+    void incrementalUpdates() {
+        index.indexActivity(yacine, javaProject, EXPERIENCE, 2023, "Java lead");
+        var hits = index.search(query("", Set.of(PROJECT), null, null, 1), 0, 10);
+        assertThat(hits.ids()).containsExactly(oldProject);
+
+        index.removeActivity(springJob);
+        index.removePerson(ikrame);
+        assertThat(index.search(query("", null, null, null, 1), 0, 10).ids()).containsExactly(javaProject);
+    }
+
+    private static ActivityFacetIndex.Query query(String q, Set<ActivityType> types, Integer from, Integer to, int bucket) {
+        return new ActivityFacetIndex.Query(q, types, from, to, bucket);
+    }
+
+    private static ActivityFacetView row(UUID id, UUID personId, ActivityType type, int year, String title) {
+        var v = mock(ActivityFacetView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getPersonId()).thenReturn(personId);
+        when(v.getType()).thenReturn(type);
+        when(v.getYear()).thenReturn(year);
+        when(v.getTitle()).thenReturn(title);
+        return v;
+    }
+}
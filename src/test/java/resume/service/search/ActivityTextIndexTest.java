@@ -0,0 +1,107 @@
+package resume.service.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import resume.model.Activity;
+import resume.model.ActivityType;
+import resume.model.Person;
+import resume.repository.ActivityRepository;
+import resume.repository.projection.ActivityTextView;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityTextIndexTest {
+
+    @Mock ActivityRepository activityRepository;
+
+    ActivityTextIndex index;
+
+    UUID yacine = UUID.randomUUID();
+    UUID ikrame = UUID.randomUUID();
+
+    UUID developer = UUID.randomUUID();
+    UUID teaching = UUID.randomUUID();
+    UUID stage = UUID.randomUUID();
+
+    @BeforeEach
+    void build() throws Exception {
+        index = new ActivityTextIndex(activityRepository, "", "always");
+        var rows = Stream.of(
+                row(developer, yacine, "Backend developer", "Building payment services in Java"),
+                row(teaching, ikrame, "Teaching assistant", "Helped students who were developing Java projects"),
+                row(stage, ikrame, "Stage de développement", "Développement d'applications mobiles")
+        );
+        when(activityRepository.streamAllText()).thenReturn(rows);
+        index.onStartup();
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        index.destroy();
+    }
+
+    @Test
+    void stemsEnglishAndFrench() {
+        assertThat(ids(index.search("developers", 0, 10))).contains(developer);
+        assertThat(ids(index.search("développements", 0, 10)).get(0)).isEqualTo(stage);
+        assertThat(ids(index.search("étudiants", 0, 10))).isEmpty();
+        assertThat(index.search("the", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void ranksTitleMatchesFirst_andPages() {
+        var hits = index.search("java developer", 0, 10);
+        assertThat(ids(hits).get(0)).isEqualTo(developer);
+        assertThat(hits.total()).isEqualTo(3);
+
+        var second = index.search("java developer", 1, 1);
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(ids(second)).containsExactly(ids(hits).get(1));
+    }
+
+    @Test
+    void pagesPastTheIndex_areEmpty_withoutOverflow() {
+        var beyond = index.search("java developer", 3, 1);
+        assertThat(beyond.hits()).isEmpty();
+        assertThat(beyond.total()).isEqualTo(3);
+
+        // (page + 1) * size would overflow an int
+        assertThat(index.search("java developer", Integer.MAX_VALUE, 100).hits()).isEmpty();
+        assertThat(ids(index.search("java developer", 0, Integer.MAX_VALUE))).hasSize(3);
+    }
+
+    @Test
+    void incrementalUpdates() {
+        var person = Person.builder().id(yacine).build();
+        var a = Activity.builder().id(developer).person(person).type(ActivityType.EXPERIENCE)
+                .year(2024).title("Gardener").description("Roses").build();
+
+        index.indexActivity(a);
+        assertThat(index.search("payment", 0, 10).total()).isZero();
+        assertThat(ids(index.search("roses", 0, 10))).containsExactly(developer);
+
+        index.removeActivity(developer);
+        index.removePerson(ikrame);
+        assertThat(index.search("java roses développement", 0, 10).total()).isZero();
+    }
+
+    private static List<UUID> ids(ActivityTextIndex.Hits hits) {
+        return hits.hits().stream().map(ActivityTextIndex.Hit::id).toList();
+    }
+
+    private static ActivityTextView row(UUID id, UUID personId, String title, String description) {
+        var v = mock(ActivityTextView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getPersonId()).thenReturn(personId);
+        when(v.getTitle()).thenReturn(title);
+        when(v.getDescription()).thenReturn(description);
+        return v;
+    }
+}
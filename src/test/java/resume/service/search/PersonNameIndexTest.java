@@ -0,0 +1,73 @@
+package resume.service.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import resume.repository.*;
+import resume.repository.projection.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonNameIndexTest {
+
+    @Mock PersonRepository personRepository;
+
+    @InjectMocks PersonNameIndex index;
+
+    UUID yacine = UUID.randomUUID();
+    UUID ikrame = UUID.randomUUID();
+    UUID helene = UUID.randomUUID();
+
+    @BeforeEach
+    void build() {
+        var names = List.of(
+                name(yacine, "Yacine", "Kartout"),
+                name(ikrame, "Ikrame", "Loukridi"),
+                name(helene, "Hélène", "Karamazov")
+        );
+        when(personRepository.findAllNames()).thenReturn(names);
+        index.rebuild();
+    }
+
+    @Test
+    void prefixOfFirstOrLastName_accentAndCaseInsensitive() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.suggest("KAR", 10))).containsExactly(helene, yacine);
+        assertThat(ids(index.suggest("helene", 10))).containsExactly(helene);
+        assertThat(ids(index.suggest("kartout  y", 10))).containsExactly(yacine);
+        assertThat(ids(index.suggest("yacine k", 10))).containsExactly(yacine);
+        assertThat(index.suggest("kar", 1)).hasSize(1);
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void incrementalUpdates() {
+        index.indexPerson(yacine, "Yacine", "Dupont");
+        assertThat(ids(index.suggest("kartout", 10))).isEmpty();
+        assertThat(ids(index.suggest("dup", 10))).containsExactly(yacine);
+
+        index.removePerson(ikrame);
+        assertThat(index.suggest("ikr", 10)).isEmpty();
+
+        var newcomer = UUID.randomUUID();
+        index.indexPerson(newcomer, "Iris", "Loukridi");
+        assertThat(index.suggest("lou", 10)).extracting(PersonNameIndex.Name::firstName).containsExactly("Iris");
+    }
+
+    private static List<UUID> ids(List<PersonNameIndex.Name> names) {
+        return names.stream().map(PersonNameIndex.Name::id).toList();
+    }
+
+    private static PersonNameView name(UUID id, String first, String last) {
+        var v = mock(PersonNameView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getFirstName()).thenReturn(first);
+        when(v.getLastName()).thenReturn(last);
+        return v;
+    }
+}
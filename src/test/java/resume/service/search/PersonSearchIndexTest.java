@@ -0,0 +1,116 @@
+package resume.service.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import resume.repository.*;
+import resume.repository.projection.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonSearchIndexTest {
+
+    @Mock PersonRepository personRepository;
+    @Mock ActivityRepository activityRepository;
+
+    @InjectMocks PersonSearchIndex index;
+
+    UUID yacine = UUID.randomUUID();
+    UUID ikrame = UUID.randomUUID();
+
+    @BeforeEach
+    void build() {
+        var names = List.of(
+                name(yacine, "Yacine", "Kartout"),
+                name(ikrame, "Ikrame", "Loukridi")
+        );
+        var titles = List.of(title(UUID.randomUUID(), ikrame, "Java Developer"));
+
+        when(personRepository.findAllNames()).thenReturn(names);
+        when(activityRepository.findAllTitles()).thenReturn(titles);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesNamesAndTitles_caseInsensitive() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("KART", 0, 10).ids()).containsExactly(yacine);
+        assertThat(index.search("java", 0, 10).ids()).containsExactly(ikrame);
+        assertThat(index.search("e", 0, 10).total()).isEqualTo(2);
+    }
+
+    @Test
+    void sortsByLastNameAndPages() {
+        var first = index.search("", 0, 1);
+        var second = index.search("", 1, 1);
+
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(first.ids()).containsExactly(yacine);
+        assertThat(second.ids()).containsExactly(ikrame);
+    }
+
+    @Test
+    void incrementalUpdates() {
+        var actId = UUID.randomUUID();
+        index.indexActivity(yacine, actId, "Spring Architect");
+        assertThat(index.search("architect", 0, 10).ids()).containsExactly(yacine);
+
+        index.indexActivity(yacine, actId, "Gardener");
+        assertThat(index.search("architect", 0, 10).total()).isZero();
+
+        index.removeActivity(yacine, actId);
+        assertThat(index.search("garden", 0, 10).total()).isZero();
+
+        index.indexPerson(yacine, "Yacine", "Dupont");
+        assertThat(index.search("kartout", 0, 10).total()).isZero();
+        assertThat(index.search("dupont", 0, 10).ids()).containsExactly(yacine);
+
+        index.removePerson(ikrame);
+        assertThat(index.search("java", 0, 10).total()).isZero();
+        assertThat(index.search("", 0, 10).ids()).containsExactly(yacine);
+    }
+
+    @Test
+    void checkpoint_restoresOnce_whenCountsMatch(@TempDir java.nio.file.Path dir) {
+        var checkpoint = new IndexCheckpoint(dir.toString());
+        var saved = new PersonSearchIndex(personRepository, activityRepository, checkpoint);
+        saved.rebuild();
+        saved.destroy();
+
+        when(personRepository.count()).thenReturn(2L);
+        when(activityRepository.count()).thenReturn(1L);
+
+        var restored = new PersonSearchIndex(personRepository, activityRepository, checkpoint);
+        restored.onStartup();
+
+        assertThat(restored.search("java", 0, 10).ids()).containsExactly(ikrame);
+        assertThat(restored.search("", 0, 10).ids()).containsExactly(yacine, ikrame);
+        verify(personRepository, times(2)).findAllNames();
+
+        // consumed: the next start scans the tables again
+        new PersonSearchIndex(personRepository, activityRepository, checkpoint).onStartup();
+        verify(personRepository, times(3)).findAllNames();
+    }
+
+    private static PersonNameView name(UUID id, String first, String last) {
+        var v = mock(PersonNameView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getFirstName()).thenReturn(first);
+        when(v.getLastName()).thenReturn(last);
+        return v;
+    }
+
+    private static ActivityTitleView title(UUID id, UUID personId, String title) {
+        var v = mock(ActivityTitleView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getPersonId()).thenReturn(personId);
+        when(v.getTitle()).thenReturn(title);
+        return v;
+    }
+}
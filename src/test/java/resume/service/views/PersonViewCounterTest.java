@@ -0,0 +1,76 @@
+package resume.service.views;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import resume.model.*;
+import resume.repository.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+
+@DataJpaTest(properties = {"app.views.flush-interval=0", "app.views.top-size=2"})
+@Import(PersonViewCounter.class)
+class PersonViewCounterTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    PersonViewCounter counter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flushAddsPendingCounts_andRanksTopK() {
+        var a = person("a@mail.fr");
+        var b = person("b@mail.fr");
+        var c = person("c@mail.fr");
+        jdbcTemplate.update("update \"persons\" set \"view_count\" = 5 where \"id\" = ?", c.getId());
+        counter.onStartup();
+        assertThat(counter.top(10)).containsExactly(new PersonViewCounter.Ranked(c.getId(), 5));
+
+        for (int i = 0; i < 7; i++) {
+            counter.record(a.getId());
+        }
+        counter.record(b.getId());
+        // nothing is written nor ranked before the flush
+        assertThat(viewCount(a)).isZero();
+        assertThat(counter.top(10)).hasSize(1);
+
+        assertThat(counter.flush()).isEqualTo(2);
+        assertThat(counter.flush()).isZero();
+
+        assertThat(viewCount(a)).isEqualTo(7);
+        assertThat(viewCount(b)).isEqualTo(1);
+        assertThat(counter.top(10)).extracting(PersonViewCounter.Ranked::id).containsExactly(a.getId(), c.getId());
+        assertThat(counter.top(1)).extracting(PersonViewCounter.Ranked::views).containsExactly(7L);
+    }
+
+    @Test
+    void entityUpdatesKeepFlushedCounts() {
+        var a = person("a@mail.fr");
+        counter.onStartup();
+        counter.record(a.getId());
+        counter.flush();
+
+        a.setWebsite("https://a.fr");
+        personRepository.saveAndFlush(a);
+
+        assertThat(viewCount(a)).isEqualTo(1);
+    }
+
+    private Person person(String email) {
+        return personRepository.saveAndFlush(Person.builder()
+                .firstName("F").lastName("L").email(email).passwordHash("x".repeat(60)).build());
+    }
+
+    private long viewCount(Person p) {
+        return jdbcTemplate.queryForObject("select \"view_count\" from \"persons\" where \"id\" = ?", Long.class, p.getId());
+    }
+}
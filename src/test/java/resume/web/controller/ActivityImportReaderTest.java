@@ -0,0 +1,52 @@
+package resume.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ActivityImportReaderTest {
+
+    private static final String ROW = "{\"year\":2024,\"type\":\"PROJECT\",\"title\":\"Java API\"}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void readsArrayAndNdjson() throws IOException {
+        assertThat(read("[" + ROW + "," + ROW + "]")).isEqualTo(2);
+        assertThat(read(ROW + "\n" + ROW + "\n")).isEqualTo(2);
+    }
+
+    @Test
+    void nullElement_isRejectedLikeAnInvalidRow() {
+        assertBadRow("[" + ROW + ", null]", "Activity #2: must be an object");
+        assertBadRow(ROW + "\nnull\n", "Activity #2: must be an object");
+        assertBadRow("[" + ROW + ", {\"year\":2024,\"type\":\"PROJECT\"}]", "Activity #2: title must not be blank");
+    }
+
+    private int read(String body) throws IOException {
+        var reader = new ActivityImportReader(mapper, validator, new StringReader(body));
+        int n = 0;
+        while (reader.hasNext()) {
+            reader.next();
+            n++;
+        }
+        return n;
+    }
+
+    private void assertBadRow(String body, String reason) {
+        assertThatThrownBy(() -> read(body))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).isEqualTo(reason);
+                });
+    }
+}
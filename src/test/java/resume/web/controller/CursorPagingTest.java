@@ -0,0 +1,45 @@
+package resume.web.controller;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:securitydb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "app.jwt.secret=test_secret_key_that_is_long_enough_for_hs256_0123456789",
+        "app.jwt.expiration=60000",
+        "app.seed.enabled=false"
+})
+@AutoConfigureMockMvc
+class CursorPagingTest {
+
+    @Autowired MockMvc mvc;
+
+    @Test
+    void personCursor_rejectsOutOfRangeSizes() throws Exception {
+        mvc.perform(get("/api/persons").param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("size must be between 1 and " + Paging.MAX_SIZE));
+        mvc.perform(get("/api/persons").param("cursor", "").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/persons").param("cursor", "").param("size", "10"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void activityCursor_rejectsOutOfRangeSizes() throws Exception {
+        var url = "/api/persons/" + UUID.randomUUID() + "/activities";
+        mvc.perform(get(url).param("cursor", "").param("size", "-1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get(url).param("cursor", "").param("size", String.valueOf(Paging.MAX_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+    }
+}
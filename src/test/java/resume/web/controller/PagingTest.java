@@ -0,0 +1,25 @@
+package resume.web.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PagingTest {
+
+    @Test
+    void check_acceptsPagesAndSizesWithinBounds() {
+        assertThatNoException().isThrownBy(() -> Paging.check(0, 1));
+        assertThatNoException().isThrownBy(() -> Paging.check(1_000, Paging.MAX_SIZE));
+    }
+
+    @Test
+    void check_rejectsNegativePagesAndOutOfRangeSizes() {
+        assertThatThrownBy(() -> Paging.check(-1, 10)).isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("page must not be negative");
+        assertThatThrownBy(() -> Paging.check(0, 0)).isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("size must be between 1 and " + Paging.MAX_SIZE);
+        assertThatThrownBy(() -> Paging.check(0, Paging.MAX_SIZE + 1)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> Paging.checkSize(-5)).isInstanceOf(ResponseStatusException.class);
+    }
+}
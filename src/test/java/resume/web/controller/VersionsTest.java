@@ -0,0 +1,34 @@
+package resume.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import resume.service.cache.CvCache;
+import resume.service.exceptions.PreconditionFailedException;
+import resume.web.dto.person.PersonResponseDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VersionsTest {
+
+    @Test
+    void expected_acceptsPutAndGetTags() {
+        var cv = new PersonResponseDto(UUID.randomUUID(), "Yacine", "Kartout", "y@mail.fr", null, null, List.of(), 3L);
+        var etag = new CvCache(10, Duration.ofMinutes(1), false, 0, new ObjectMapper()).etagOf(cv);
+
+        assertThat(Versions.expected(Versions.etag(3))).isEqualTo(3L);
+        assertThat(Versions.expected(etag)).isEqualTo(3L);
+        assertThat(Versions.expected(etag.replaceFirst("\"$", "-gz\""))).isEqualTo(3L);
+        assertThat(Versions.expected(null)).isNull();
+        assertThat(Versions.expected("*")).isNull();
+    }
+
+    @Test
+    void expected_rejectsTagsWithoutVersion() {
+        assertThatThrownBy(() -> Versions.expected("W/\"3\"")).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> Versions.expected("\"abc\"")).isInstanceOf(PreconditionFailedException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package resume.web.security;
+
+import org.junit.jupiter.api.*;
+import resume.service.exceptions.ServiceUnavailableException;
+import resume.web.metrics.SqlStatementCounter;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedPasswordHasherTest {
+
+    @Test
+    void verify_rehashesWhenCostDiffers() {
+        var old = new BCryptPasswordHasher(4);
+        var hasher = new BoundedPasswordHasher(new BCryptPasswordHasher(5), 1, 4, 1);
+        var stored = old.hash("secret");
+
+        var ok = hasher.verifyAsync("secret", stored).join();
+        assertThat(ok.matches()).isTrue();
+        assertThat(ok.upgradedHash()).startsWith("$2a$05$");
+        assertThat(hasher.needsRehash(ok.upgradedHash())).isFalse();
+
+        var bad = hasher.verifyAsync("wrong", stored).join();
+        assertThat(bad.matches()).isFalse();
+        assertThat(bad.upgradedHash()).isNull();
+
+        hasher.destroy();
+    }
+
+    @Test
+    void submit_rejectsWhenQueueIsFull() throws Exception {
+        var hasher = new BoundedPasswordHasher(new BCryptPasswordHasher(4), 1, 1, 3);
+        var release = new CountDownLatch(1);
+
+        hasher.submit(() -> await(release));   // running
+        hasher.submit(() -> await(release));   // queued
+
+        assertThatThrownBy(() -> hasher.hash("x"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        assertThat(hasher.rejected()).isEqualTo(1);
+
+        release.countDown();
+        hasher.destroy();
+    }
+
+    @Test
+    void submit_countsPoolStatementsOnTheCallersRequest() {
+        var counter = new SqlStatementCounter();
+        var hasher = new BoundedPasswordHasher(new BCryptPasswordHasher(4), 1, 4, 1, counter);
+
+        var count = counter.start();
+        hasher.submit(() -> counter.inspect("update persons")).join();
+        assertThat(count).hasValue(1);
+
+        // the next request on this thread starts from zero, on the pool too
+        counter.start();
+        assertThat(hasher.submit(counter::current).join()).isZero();
+        assertThat(count).hasValue(1);
+
+        hasher.destroy();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, java.util.concurrent.TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package resume.web.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.*;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtServiceTest {
+
+    static final String SECRET = "test_secret_key_that_is_long_enough_for_hs256_0123456789";
+
+    @Test
+    void validate_cachesVerifiedTokens() {
+        var jwt = new JwtService(SECRET, 60_000, 100);
+        var id = UUID.randomUUID();
+        var token = jwt.generateToken(id, "a@b.com");
+
+        assertThat(jwt.validateAndGetPersonId(token)).isEqualTo(id);
+        assertThat(jwt.validateAndGetPersonId(token)).isEqualTo(id);
+        assertThat(jwt.validateAndGetPersonId(token)).isEqualTo(id);
+
+        assertThat(jwt.getTokenCache().misses()).isEqualTo(1);
+        assertThat(jwt.getTokenCache().hits()).isEqualTo(2);
+    }
+
+    @Test
+    void validate_rejectsForgedToken_evenWhenOriginalIsCached() {
+        var jwt = new JwtService(SECRET, 60_000, 100);
+        var id = UUID.randomUUID();
+        var token = jwt.generateToken(id, "a@b.com");
+        jwt.validateAndGetPersonId(token);
+
+        var forger = new JwtService(SECRET.replace('0', 'x'), 60_000, 100);
+        var forged = forger.generateToken(id, "a@b.com");
+
+        assertThatThrownBy(() -> jwt.validateAndGetPersonId(forged))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void validate_doesNotServeExpiredTokensFromCache() throws InterruptedException {
+        var jwt = new JwtService(SECRET, 1_000, 100);
+        var token = jwt.generateToken(UUID.randomUUID(), "a@b.com");
+        jwt.validateAndGetPersonId(token);
+
+        Thread.sleep(1_100);
+
+        assertThatThrownBy(() -> jwt.validateAndGetPersonId(token))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void cache_staysBounded() {
+        var cache = new VerifiedTokenCache(8);
+        long exp = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, UUID.randomUUID(), exp);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(8);
+        assertThat(cache.evictions()).isPositive();
+    }
+}
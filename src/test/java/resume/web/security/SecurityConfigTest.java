@@ -0,0 +1,45 @@
+package resume.web.security;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:securitydb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "app.jwt.secret=" + JwtServiceTest.SECRET,
+        "app.jwt.expiration=60000",
+        "app.seed.enabled=false"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+
+    @Test
+    void export_isUnauthorized_withoutToken() throws Exception {
+        mvc.perform(get("/api/persons/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void export_isServed_withToken() throws Exception {
+        var token = jwtService.generateToken(UUID.randomUUID(), "a@b.com");
+
+        mvc.perform(get("/api/persons/export").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void otherReads_stayPublic() throws Exception {
+        mvc.perform(get("/api/persons").param("size", "5"))
+                .andExpect(status().isOk());
+    }
+}